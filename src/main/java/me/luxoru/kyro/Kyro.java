@@ -4,26 +4,53 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import me.luxoru.kyro.event.Cancellable;
+import me.luxoru.kyro.capture.CaptureSettings;
+import me.luxoru.kyro.capture.TrafficRecorder;
 import me.luxoru.kyro.event.KyroEvent;
-import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.file.FileCache;
+import me.luxoru.kyro.file.FileSender;
+import me.luxoru.kyro.lane.Lane;
+import me.luxoru.kyro.lane.LaneSettings;
+import me.luxoru.kyro.metrics.KyroMetrics;
+import me.luxoru.kyro.metrics.LaneMetrics;
+import me.luxoru.kyro.projection.FieldTree;
+import me.luxoru.kyro.projection.Projector;
 import me.luxoru.kyro.request.RequestMethod;
 import me.luxoru.kyro.request.RestPath;
 import me.luxoru.kyro.request.Route;
-import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.request.UploadSettings;
+import me.luxoru.kyro.response.FileResponse;
 import me.luxoru.kyro.response.ResponseCode;
+import me.luxoru.kyro.tls.ObservedSSLContext;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Main class for the Kyro web server framework.
@@ -39,15 +66,58 @@ public class Kyro {
             .disableHtmlEscaping()
             .create();
 
+    private static final int DEFAULT_FILE_CACHE_SIZE = 256;
+    private static final long FILE_REVALIDATE_MILLIS = 1000L;
+    private static final int DEFAULT_TLS_SESSION_CACHE_SIZE = 20480;
+    private static final int DEFAULT_TLS_SESSION_TIMEOUT = 86400;
+    private static final String DEFAULT_FIELDS_PARAMETER = "fields";
+    private static final int DEFAULT_SHUTDOWN_GRACE_PERIOD = 0;
+    private static final long WARMUP_REQUEST_TIMEOUT_MILLIS = 10_000L;
+    private static final byte[] NO_BODY = new byte[0];
+
     private final int port;
     private final HttpServer httpServer;
     private final Set<Object> routes;
+    @Getter(AccessLevel.PACKAGE)
     private final Set<KyroEvent> events;
+    @Getter(AccessLevel.PACKAGE)
     private final Gson gson;
+    @Getter(AccessLevel.PACKAGE)
+    private final Projector projector;
+    @Getter(AccessLevel.PACKAGE)
+    private final String fieldsParameter;
+    private final Map<String, Path> staticDirectories;
+    private final FileCache fileCache;
+    @Getter(AccessLevel.PACKAGE)
+    private final FileSender fileSender;
+    @Getter(AccessLevel.PACKAGE)
+    private final UploadSettings uploadSettings;
+    @Getter(AccessLevel.PACKAGE)
+    private final long defaultTimeout;
+    @Getter(AccessLevel.PACKAGE)
+    private final ExecutorService handlerExecutor;
+    @Getter
+    private final KyroMetrics metrics;
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, Lane> lanes;
+    private final int warmupIterations;
+    private final List<WarmupRequest> warmupRequests;
+    private final String readinessPath;
+    private final long shutdownDrainDelay;
+    private final int shutdownGracePeriod;
+    private final Map<String, HttpHandler> handlers = new HashMap<>();
+    @Getter(AccessLevel.PACKAGE)
+    private final TrafficRecorder trafficRecorder;
 
     @Getter
     private boolean running = false;
 
+    /**
+     * Whether every route is registered, warmed up and the server is accepting connections.
+     */
+    @Getter
+    private volatile boolean ready = false;
+
     /**
      * Constructs a new Kyro instance with the specified configuration.
      *
@@ -57,36 +127,240 @@ public class Kyro {
      * @param gson the Gson instance for JSON serialization/deserialization
      */
     public Kyro(int port, Set<Object> routes, Set<KyroEvent> events, Gson gson) {
-        this.port = port;
-        this.routes = routes;
-        this.events = events;
-        this.gson = gson;
+        this(new KyroBuilder(port, routes, events).setGson(gson));
+    }
+
+    /**
+     * Constructs a new Kyro instance from the configuration of the given builder.
+     *
+     * @param builder the builder holding the configuration
+     */
+    private Kyro(KyroBuilder builder) {
+        this.port = builder.port;
+        this.routes = builder.routes;
+        this.events = builder.events;
+        this.gson = builder.gson;
+        this.projector = new Projector(gson);
+        this.fieldsParameter = builder.fieldsParameter;
+        this.staticDirectories = builder.staticDirectories;
+        this.fileCache = new FileCache(builder.fileCacheSize, FILE_REVALIDATE_MILLIS);
+        this.fileSender = new FileSender(fileCache);
+        this.uploadSettings = new UploadSettings(builder.maxBodySize, builder.uploadMemoryThreshold,
+                builder.uploadMemoryBudget, builder.uploadDirectory);
+        this.defaultTimeout = builder.defaultTimeout;
+        this.handlerExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kyro-handler-", 0).factory());
+        this.metrics = new KyroMetrics();
+        this.lanes = new HashMap<>();
+        for (LaneSettings settings : builder.lanes.values()) {
+            LaneMetrics laneMetrics = metrics.lane(settings.name(), settings.maxConcurrency(), settings.queueCapacity());
+            lanes.put(settings.name(), new Lane(settings, laneMetrics));
+        }
+        this.warmupIterations = builder.warmupIterations;
+        this.warmupRequests = List.copyOf(builder.warmupRequests);
+        this.readinessPath = builder.readinessPath;
+        this.shutdownDrainDelay = builder.shutdownDrainDelay;
+        this.shutdownGracePeriod = builder.shutdownGracePeriod;
         try {
-            httpServer = HttpServer.create(new InetSocketAddress(port), 0);
-            httpServer.setExecutor(null);
+            this.trafficRecorder = builder.captureSettings != null ? new TrafficRecorder(builder.captureSettings) : null;
+            // The server is bound in start(), once every route is registered and warmed up
+            httpServer = builder.sslContext != null
+                    ? createHttpsServer(builder, new ObservedSSLContext(builder.sslContext, metrics.getHandshakes()))
+                    : HttpServer.create();
+            httpServer.setExecutor(builder.executor);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * Starts the Kyro server. This method initializes routes and begins listening for incoming requests.
+     * Creates an HTTPS server using the TLS settings of the given builder.
+     *
+     * @param builder the builder holding the configuration
+     * @param sslContext the context the server creates its TLS engines from
+     * @return the unbound server
+     * @throws IOException if the server cannot be created
+     */
+    private static HttpsServer createHttpsServer(KyroBuilder builder, SSLContext sslContext) throws IOException {
+        SSLSessionContext sessionContext = sslContext.getServerSessionContext();
+        sessionContext.setSessionCacheSize(builder.tlsSessionCacheSize);
+        sessionContext.setSessionTimeout(builder.tlsSessionTimeout);
+
+        HttpsServer httpsServer = HttpsServer.create();
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext) {
+            @Override
+            public void configure(HttpsParameters params) {
+                SSLParameters parameters = getSSLContext().getDefaultSSLParameters();
+                if (builder.tlsProtocols != null) {
+                    parameters.setProtocols(builder.tlsProtocols);
+                }
+                if (builder.tlsCipherSuites != null) {
+                    parameters.setCipherSuites(builder.tlsCipherSuites);
+                }
+                params.setSSLParameters(parameters);
+            }
+        });
+        return httpsServer;
+    }
+
+    /**
+     * Starts the Kyro server.
+     * <p>
+     * Every route and static directory is registered and, if enabled, warmed up before the server reports ready
+     * through {@link #isReady()}, so the first real request neither misses a route nor runs against cold code.
+     * With a readiness path, the listener is bound first and the probe answers
+     * {@link ResponseCode#SERVICE_UNAVAILABLE} while warming up; otherwise warm-up runs before the listener is
+     * bound.
+     * </p>
      *
      * @throws IllegalStateException if the server is already running
+     * @throws RuntimeException if the port cannot be bound
      */
     public void start() {
         if (isRunning()) {
             throw new IllegalStateException("Kyro already running");
         }
 
+        for (Object route : routes) {
+            handleRoute(route);
+        }
+
+        for (Map.Entry<String, Path> entry : staticDirectories.entrySet()) {
+            createContext(entry.getKey(), new StaticFileHandler(entry.getKey(), entry.getValue(), events, fileSender));
+            log.info("Serving {} on {}", entry.getValue(), entry.getKey());
+        }
+
+        if (readinessPath != null) {
+            httpServer.createContext(readinessPath, this::handleReadiness);
+        }
+
+        // Without a probe nothing holds traffic back, so only accept connections once warmed up
+        boolean warmupBeforeBind = readinessPath == null;
+        if (warmupIterations > 0 && warmupBeforeBind) {
+            warmup();
+        }
+
+        try {
+            httpServer.bind(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
         httpServer.start();
         running = true;
 
-        for (Object route : routes) {
-            handleRoute(route);
+        if (warmupIterations > 0 && !warmupBeforeBind) {
+            warmup();
+        }
+        ready = true;
+
+        log.info("Started Kyro on port {}{}", port, httpServer instanceof HttpsServer ? " (HTTPS)" : "");
+    }
+
+    /**
+     * Sends synthetic requests through the registered handlers to get their code paths compiled.
+     * <p>
+     * Requests run one at a time on the starting thread and go through the same dispatch, events, lanes,
+     * handler call and serialization as real traffic. Only the configured warm-up requests are sent, as
+     * requesting a route may have side effects.
+     * </p>
+     */
+    private void warmup() {
+        if (warmupRequests.isEmpty()) {
+            log.warn("Warm-up is enabled but no warm-up requests were added");
+            return;
+        }
+
+        List<WarmupRequest> requests = new ArrayList<>();
+        for (WarmupRequest warmupRequest : warmupRequests) {
+            if (findHandler(warmupRequest.uri().getPath()) == null) {
+                log.warn("No route found for warm-up request {} {}", warmupRequest.method(), warmupRequest.uri());
+            } else {
+                requests.add(warmupRequest);
+            }
+        }
+
+        long started = System.nanoTime();
+        int sent = 0;
+
+        for (int i = 0; i < warmupIterations; i++) {
+            for (WarmupRequest warmupRequest : requests) {
+                if (!sendWarmupRequest(warmupRequest)) {
+                    log.warn("Aborted warm-up after {} requests", sent);
+                    return;
+                }
+                sent++;
+            }
+        }
+
+        log.info("Sent {} warm-up requests in {} ms", sent, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Sends a single warm-up request to the handler whose path matches it best, like the server would.
+     *
+     * @param warmupRequest the request to send
+     * @return {@code false} if the handler did not finish in time and the warm-up should stop
+     */
+    private boolean sendWarmupRequest(WarmupRequest warmupRequest) {
+        HttpHandler handler = findHandler(warmupRequest.uri().getPath());
+        WarmupExchange exchange = new WarmupExchange(warmupRequest.method().name(), warmupRequest.uri(),
+                warmupRequest.body());
+        try {
+            handler.handle(exchange);
+            if (!exchange.awaitClose(WARMUP_REQUEST_TIMEOUT_MILLIS)) {
+                log.warn("Warm-up request {} {} did not finish within {} ms", warmupRequest.method(),
+                        warmupRequest.uri(), WARMUP_REQUEST_TIMEOUT_MILLIS);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Warm-up request {} {} failed:", warmupRequest.method(), warmupRequest.uri(), e);
+        }
+        return true;
+    }
+
+    private HttpHandler findHandler(String path) {
+        HttpHandler match = null;
+        int matchLength = -1;
+        for (Map.Entry<String, HttpHandler> entry : handlers.entrySet()) {
+            String contextPath = entry.getKey();
+            if (path.startsWith(contextPath) && contextPath.length() > matchLength) {
+                match = entry.getValue();
+                matchLength = contextPath.length();
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Answers readiness probes.
+     * <p>
+     * Only {@link #isReady()} decides the status; the probe does not pass through events or lanes so it
+     * keeps answering while routes are saturated.
+     * </p>
+     */
+    private void handleReadiness(HttpExchange exchange) throws IOException {
+        boolean currentlyReady = ready;
+        ResponseCode responseCode = currentlyReady ? ResponseCode.OK : ResponseCode.SERVICE_UNAVAILABLE;
+
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("success", currentlyReady);
+        jsonObject.addProperty("value", currentlyReady ? "ready" : "unavailable");
+        byte[] body = gson.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(responseCode.getCode(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
         }
+    }
 
-        log.info("Started Kyro on port {}", port);
+    private void createContext(String path, HttpHandler handler) {
+        httpServer.createContext(path, handler);
+        handlers.put(path, handler);
     }
 
     /**
@@ -115,65 +389,7 @@ public class Kyro {
                 path = route.path() + path;
             }
 
-            httpServer.createContext(path, exchange -> {
-                Request request = new Request(exchange);
-                Response response = new Response();
-                JsonObject jsonObject = new JsonObject();
-
-                try {
-                    boolean cancelled = false;
-
-                    for (KyroEvent event : events) {
-                        event.handle(request, response);
-
-                        if (event instanceof Cancellable cancellableEvent) {
-                            if (cancellableEvent.isCancelled()) {
-                                cancelled = true;
-                            }
-                        }
-                    }
-
-                    if (cancelled) {
-                        response.setResponseCode(ResponseCode.FORBIDDEN);
-                        response.setResponseCode(null);
-                        jsonObject.addProperty("success", false);
-                        jsonObject.addProperty("error", "Request has been cancelled internally");
-                        sendResponse(exchange, response, jsonObject);
-                        return;
-                    }
-
-                    if (request.getMethod() == null) {
-                        response.setResponseCode(ResponseCode.BAD_REQUEST);
-                        jsonObject.addProperty("success", false);
-                        jsonObject.addProperty("error", "Request method is null");
-                        sendResponse(exchange, response, jsonObject);
-                        return;
-                    }
-
-                    Object returned = method.invoke(classInstance, request, response);
-
-                    if (method.getReturnType() != Void.class) {
-                        jsonObject.addProperty("success", true);
-                        jsonObject.add("value", gson.toJsonTree(returned));
-                    } else if (restPath.method() == RequestMethod.GET) {
-                        response.setResponseCode(ResponseCode.BAD_REQUEST);
-                        sendResponse(exchange, response, jsonObject);
-                        return;
-                    }
-                } catch (IllegalAccessException | InvocationTargetException ex) {
-                    log.error("Failed handling request:", ex);
-
-                    if (response.getResponseCode() == ResponseCode.OK) {
-                        response.setResponseCode(ResponseCode.INTERNAL_SERVER_ERROR);
-                    }
-
-                    jsonObject.addProperty("success", false);
-                    jsonObject.addProperty("error", ex.getCause() != null ? ex.getCause().getLocalizedMessage() : ex.getMessage());
-                }
-
-                // Send the final response
-                sendResponse(exchange, response, jsonObject);
-            });
+            createContext(path, new RouteHandler(this, classInstance, method, path));
 
             methodsAdded++;
         }
@@ -185,29 +401,13 @@ public class Kyro {
         }
     }
 
-    /**
-     * Sends the HTTP response back to the client.
-     *
-     * @param exchange the HTTP exchange containing the response
-     * @param response the response object containing the response code
-     * @param jsonObject the JSON object to be sent in the response body
-     * @throws IOException if an I/O error occurs while sending the response
-     */
-    private void sendResponse(HttpExchange exchange, Response response, JsonObject jsonObject) throws IOException {
-        String json = gson.toJson(jsonObject);
-        log.info(json);
-        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(response.getResponseCode().getCode(), jsonBytes.length);
-        try (OutputStream responseBody = exchange.getResponseBody()) {
-            responseBody.write(jsonBytes);
-        } catch (Exception e) {
-            log.error("Error while writing response: ", e);
-        }
-    }
-
     /**
      * Stops the Kyro server and performs cleanup operations.
+     * <p>
+     * The server first reports itself as not ready and keeps serving for the drain delay, so load balancers
+     * polling the readiness path can take it out of rotation. It then stops accepting connections and gives
+     * in-flight exchanges up to the grace period to finish before the handlers are interrupted.
+     * </p>
      *
      * @throws IllegalStateException if the server is not running
      */
@@ -215,8 +415,22 @@ public class Kyro {
         if (!running) {
             throw new IllegalStateException("Kyro is not running");
         }
+        ready = false;
+        if (shutdownDrainDelay > 0) {
+            try {
+                Thread.sleep(shutdownDrainDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         running = false;
-        httpServer.stop(0);
+        httpServer.stop(shutdownGracePeriod);
+        handlerExecutor.shutdownNow();
+        lanes.values().forEach(Lane::shutdown);
+        fileCache.close();
+        if (trafficRecorder != null) {
+            trafficRecorder.close();
+        }
     }
 
     /**
@@ -230,7 +444,28 @@ public class Kyro {
         private final int port;
         private final Set<Object> routes;
         private final Set<KyroEvent> events;
+        private final Map<String, Path> staticDirectories;
         private Gson gson;
+        private Executor executor;
+        private int fileCacheSize;
+        private long maxBodySize;
+        private int uploadMemoryThreshold;
+        private int uploadMemoryBudget;
+        private Path uploadDirectory;
+        private long defaultTimeout;
+        private final Map<String, LaneSettings> lanes = new LinkedHashMap<>();
+        private SSLContext sslContext;
+        private int tlsSessionCacheSize = DEFAULT_TLS_SESSION_CACHE_SIZE;
+        private int tlsSessionTimeout = DEFAULT_TLS_SESSION_TIMEOUT;
+        private String[] tlsProtocols;
+        private String[] tlsCipherSuites;
+        private int warmupIterations;
+        private final List<WarmupRequest> warmupRequests = new ArrayList<>();
+        private String readinessPath;
+        private long shutdownDrainDelay;
+        private int shutdownGracePeriod = DEFAULT_SHUTDOWN_GRACE_PERIOD;
+        private CaptureSettings captureSettings;
+        private String fieldsParameter = DEFAULT_FIELDS_PARAMETER;
 
         /**
          * Constructs a new KyroBuilder with the specified port.
@@ -238,10 +473,20 @@ public class Kyro {
          * @param port the port on which the server will listen
          */
         public KyroBuilder(int port) {
+            this(port, new HashSet<>(), new HashSet<>());
+        }
+
+        private KyroBuilder(int port, Set<Object> routes, Set<KyroEvent> events) {
             this.port = port;
-            this.routes = new HashSet<>();
-            this.events = new HashSet<>();
+            this.routes = routes;
+            this.events = events;
+            this.staticDirectories = new LinkedHashMap<>();
             this.gson = DEFAULT_GSON;
+            this.fileCacheSize = DEFAULT_FILE_CACHE_SIZE;
+            this.maxBodySize = UploadSettings.DEFAULT.maxBodySize();
+            this.uploadMemoryThreshold = UploadSettings.DEFAULT.memoryThreshold();
+            this.uploadMemoryBudget = UploadSettings.DEFAULT.memoryBudget();
+            this.uploadDirectory = UploadSettings.DEFAULT.directory();
         }
 
         /**
@@ -277,13 +522,335 @@ public class Kyro {
             return this;
         }
 
+        /**
+         * Sets the executor requests are dispatched on.
+         * <p>
+         * By default requests are handled one at a time on the server thread. An executor is required
+         * for requests to be handled concurrently, and therefore for {@link RestPath#singleFlight()} to
+         * have any effect.
+         * </p>
+         *
+         * @param executor the executor to use, or {@code null} to handle requests on the server thread
+         * @return this builder instance
+         */
+        public KyroBuilder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Serves the files of a directory below the given path.
+         * <p>
+         * Files are streamed from cached file channels and support {@code Range} and conditional requests.
+         * </p>
+         *
+         * @param path the path the directory is served below (e.g., "/assets")
+         * @param directory the directory to serve
+         * @return this builder instance
+         */
+        public KyroBuilder addStaticDirectory(String path, Path directory) {
+            staticDirectories.put(path, directory);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files kept open for static directories and {@link FileResponse}s.
+         *
+         * @param fileCacheSize the maximum number of cached files, defaults to 256
+         * @return this builder instance
+         */
+        public KyroBuilder setFileCacheSize(int fileCacheSize) {
+            this.fileCacheSize = fileCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the default maximum size of request bodies.
+         * <p>
+         * Requests declaring a larger {@code Content-Length} are rejected with a
+         * {@link me.luxoru.kyro.response.ResponseCode#PAYLOAD_TOO_LARGE} before the handler runs, and reading
+         * past the limit fails for requests without one. Routes may override it with {@link RestPath#maxBodySize()}.
+         * </p>
+         *
+         * @param maxBodySize the maximum body size in bytes, or a negative value for no limit (the default)
+         * @return this builder instance
+         */
+        public KyroBuilder setMaxBodySize(long maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Sets the size up to which a multipart part is held in memory before it is written to a temporary file.
+         *
+         * @param uploadMemoryThreshold the threshold in bytes, defaults to 64 KiB
+         * @return this builder instance
+         */
+        public KyroBuilder setUploadMemoryThreshold(int uploadMemoryThreshold) {
+            this.uploadMemoryThreshold = uploadMemoryThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the total size of the multipart parts of a single request held in memory.
+         * <p>
+         * Once the parts of a request use up the budget, its later parts are written to temporary files even
+         * when they are below the memory threshold.
+         * </p>
+         *
+         * @param uploadMemoryBudget the budget in bytes, defaults to 1 MiB
+         * @return this builder instance
+         */
+        public KyroBuilder setUploadMemoryBudget(int uploadMemoryBudget) {
+            this.uploadMemoryBudget = uploadMemoryBudget;
+            return this;
+        }
+
+        /**
+         * Sets the directory temporary upload files are created in.
+         *
+         * @param uploadDirectory the directory to use, defaults to the system temporary directory
+         * @return this builder instance
+         */
+        public KyroBuilder setUploadDirectory(Path uploadDirectory) {
+            this.uploadDirectory = uploadDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the default timeout of route handlers.
+         * <p>
+         * Handlers still running when the timeout passes are interrupted and the client receives a
+         * {@link me.luxoru.kyro.response.ResponseCode#GATEWAY_TIMEOUT} at the deadline, whether or not the
+         * handler stops. Routes may override it with {@link RestPath#timeout()}.
+         * </p>
+         *
+         * @param defaultTimeout the timeout in milliseconds, or {@code 0} for no timeout (the default)
+         * @return this builder instance
+         */
+        public KyroBuilder setDefaultTimeout(long defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+            return this;
+        }
+
+        /**
+         * Adds a lane routes can be assigned to with {@link Route#lane()} or {@link RestPath#lane()}.
+         * <p>
+         * Every lane has its own bounded executor, so a slow group of routes cannot take threads away
+         * from routes in other lanes. Routes without a lane run on the server executor.
+         * </p>
+         *
+         * @param settings the configuration of the lane
+         * @return this builder instance
+         */
+        public KyroBuilder addLane(LaneSettings settings) {
+            lanes.put(settings.name(), settings);
+            return this;
+        }
+
+        /**
+         * Serves HTTPS instead of plain HTTP.
+         * <p>
+         * Handshakes are counted in {@link KyroMetrics#getHandshakes()}. See
+         * {@link me.luxoru.kyro.tls.TlsUtils#createContext(Path, char[])} to create a context from a key store.
+         * </p>
+         *
+         * @param sslContext the initialized context holding the server's key and certificate
+         * @return this builder instance
+         */
+        public KyroBuilder enableHttps(SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Sets the number of TLS sessions cached for resumption.
+         * <p>
+         * Clients resuming a cached session skip the key exchange of a full handshake. The cache should be
+         * large enough to hold a session for every client expected to return within the session timeout.
+         * </p>
+         *
+         * @param tlsSessionCacheSize the maximum number of cached sessions, {@code 0} for no limit, defaults to 20480
+         * @return this builder instance
+         */
+        public KyroBuilder setTlsSessionCacheSize(int tlsSessionCacheSize) {
+            this.tlsSessionCacheSize = tlsSessionCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets how long cached TLS sessions can be resumed.
+         *
+         * @param tlsSessionTimeout the timeout in seconds, {@code 0} for no limit, defaults to 86400 (24 hours)
+         * @return this builder instance
+         */
+        public KyroBuilder setTlsSessionTimeout(int tlsSessionTimeout) {
+            this.tlsSessionTimeout = tlsSessionTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the TLS protocols clients may negotiate.
+         *
+         * @param tlsProtocols the protocols (e.g., "TLSv1.3", "TLSv1.2"), or none to use the JDK defaults
+         * @return this builder instance
+         */
+        public KyroBuilder setTlsProtocols(String... tlsProtocols) {
+            this.tlsProtocols = tlsProtocols.length == 0 ? null : tlsProtocols.clone();
+            return this;
+        }
+
+        /**
+         * Sets the TLS cipher suites clients may negotiate.
+         *
+         * @param tlsCipherSuites the cipher suites (e.g., "TLS_AES_128_GCM_SHA256"), or none to use the JDK defaults
+         * @return this builder instance
+         */
+        public KyroBuilder setTlsCipherSuites(String... tlsCipherSuites) {
+            this.tlsCipherSuites = tlsCipherSuites.length == 0 ? null : tlsCipherSuites.clone();
+            return this;
+        }
+
+        /**
+         * Warms up the routes before the server starts accepting connections.
+         * <p>
+         * Each warm-up request is sent in-process through its route's dispatch, events, handler and
+         * serialization the given number of times, so the JIT has compiled these paths by the time real
+         * traffic arrives. Only the requests added with {@link #addWarmupRequest(RequestMethod, String)} are
+         * sent, so no route is called unless it was chosen for warm-up. Handlers can recognise warm-up requests
+         * with {@link me.luxoru.kyro.request.Request#isWarmup()}.
+         * </p>
+         *
+         * @param warmupIterations the number of times each warm-up request is sent, {@code 0} to disable (the default)
+         * @return this builder instance
+         */
+        public KyroBuilder enableWarmup(int warmupIterations) {
+            this.warmupIterations = warmupIterations;
+            return this;
+        }
+
+        /**
+         * Adds a request sent while warming up.
+         *
+         * @param method the method of the request
+         * @param uri the path and query of the request (e.g., "/user?id=1")
+         * @return this builder instance
+         * @see #enableWarmup(int)
+         */
+        public KyroBuilder addWarmupRequest(RequestMethod method, String uri) {
+            return addWarmupRequest(method, uri, NO_BODY);
+        }
+
+        /**
+         * Adds a request with a body sent while warming up.
+         *
+         * @param method the method of the request
+         * @param uri the path and query of the request (e.g., "/user?id=1")
+         * @param body the body of the request
+         * @return this builder instance
+         * @see #enableWarmup(int)
+         */
+        public KyroBuilder addWarmupRequest(RequestMethod method, String uri, byte[] body) {
+            warmupRequests.add(new WarmupRequest(method, URI.create(uri), body.clone()));
+            return this;
+        }
+
+        /**
+         * Serves a readiness probe on the given path.
+         * <p>
+         * The probe answers {@link me.luxoru.kyro.response.ResponseCode#OK} once every route is registered
+         * and warmed up, and {@link me.luxoru.kyro.response.ResponseCode#SERVICE_UNAVAILABLE} while the
+         * server warms up or shuts down.
+         * </p>
+         *
+         * @param readinessPath the path of the probe (e.g., "/ready")
+         * @return this builder instance
+         */
+        public KyroBuilder setReadinessPath(String readinessPath) {
+            this.readinessPath = readinessPath;
+            return this;
+        }
+
+        /**
+         * Sets how long the server keeps serving after it stopped reporting ready.
+         * <p>
+         * During this delay the readiness path answers
+         * {@link me.luxoru.kyro.response.ResponseCode#SERVICE_UNAVAILABLE} while routes are still served, giving
+         * load balancers time to notice before connections are refused. It should exceed their polling interval.
+         * </p>
+         *
+         * @param shutdownDrainDelay the delay in milliseconds, or {@code 0} to stop right away (the default)
+         * @return this builder instance
+         */
+        public KyroBuilder setShutdownDrainDelay(long shutdownDrainDelay) {
+            this.shutdownDrainDelay = shutdownDrainDelay;
+            return this;
+        }
+
+        /**
+         * Sets how long in-flight exchanges may take to finish once the server stops accepting connections.
+         * <p>
+         * {@link HttpServer#stop(int)} waits for the whole period, so this also bounds how long
+         * {@link Kyro#cleanup()} blocks.
+         * </p>
+         *
+         * @param shutdownGracePeriod the grace period in seconds, or {@code 0} to stop right away (the default)
+         * @return this builder instance
+         */
+        public KyroBuilder setShutdownGracePeriod(int shutdownGracePeriod) {
+            this.shutdownGracePeriod = shutdownGracePeriod;
+            return this;
+        }
+
+        /**
+         * Records a sample of the handled requests to a capture log.
+         * <p>
+         * Captured traffic can be replayed against another build with
+         * {@link me.luxoru.kyro.capture.TrafficReplayer} to compare latencies and responses under the real
+         * request mix. The log is memory-mapped at its maximum size when the server is built.
+         * </p>
+         *
+         * @param captureSettings the configuration of the capture
+         * @return this builder instance
+         */
+        public KyroBuilder enableCapture(CaptureSettings captureSettings) {
+            this.captureSettings = captureSettings;
+            return this;
+        }
+
+        /**
+         * Sets the query parameter clients select the fields of a response with.
+         * <p>
+         * Only the selected fields of the returned value are read and serialized, e.g.
+         * {@code ?fields=name,address(city,zip)}. See {@link FieldTree} for the syntax and
+         * {@link me.luxoru.kyro.request.Projection} to limit the fields of a route.
+         * </p>
+         *
+         * @param fieldsParameter the name of the parameter, defaults to "fields", or {@code null} to disable field selection
+         * @return this builder instance
+         */
+        public KyroBuilder setFieldsParameter(String fieldsParameter) {
+            this.fieldsParameter = fieldsParameter;
+            return this;
+        }
+
         /**
          * Builds and returns a new {@link Kyro} instance with the configured settings.
          *
          * @return a new Kyro instance
          */
         public Kyro build() {
-            return new Kyro(port, routes, events, gson);
+            return new Kyro(this);
         }
     }
+
+    /**
+     * A synthetic request sent while warming up.
+     *
+     * @param method the method of the request
+     * @param uri the path and query of the request
+     * @param body the body of the request
+     */
+    private record WarmupRequest(RequestMethod method, URI uri, byte[] body) {
+    }
 }
@@ -0,0 +1,700 @@
+package me.luxoru.kyro;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import lombok.extern.slf4j.Slf4j;
+import me.luxoru.kyro.capture.TrafficRecorder;
+import me.luxoru.kyro.event.Cancellable;
+import me.luxoru.kyro.event.KyroEvent;
+import me.luxoru.kyro.file.FileSender;
+import me.luxoru.kyro.flight.FlightKeyExtractor;
+import me.luxoru.kyro.flight.SingleFlight;
+import me.luxoru.kyro.lane.Lane;
+import me.luxoru.kyro.metrics.RouteMetrics;
+import me.luxoru.kyro.projection.FieldTree;
+import me.luxoru.kyro.projection.Projector;
+import me.luxoru.kyro.request.DeadlineExceededException;
+import me.luxoru.kyro.request.PayloadTooLargeException;
+import me.luxoru.kyro.request.Projection;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.request.UploadSettings;
+import me.luxoru.kyro.response.EncodedResponse;
+import me.luxoru.kyro.response.FileResponse;
+import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.response.ResponseCode;
+import me.luxoru.kyro.util.HTTPUtils;
+import me.luxoru.kyro.util.HashingOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handles the requests of a single {@link RestPath} method.
+ * <p>
+ * Each request fires the registered {@link KyroEvent}s, invokes the handler method and encodes
+ * the returned value into the {@code {"success":...,"value":...}} envelope. GET endpoints answer
+ * {@code If-None-Match} and {@code If-Modified-Since} requests with {@link ResponseCode#NOT_MODIFIED}.
+ * Methods returning a {@link FileResponse} stream the file instead of encoding an envelope. Routes assigned
+ * to a {@link Lane} are handed to that lane, and answered with {@link ResponseCode#SERVICE_UNAVAILABLE}
+ * while it is saturated. A handler that outlives the deadline of its request keeps its lane slot until it
+ * returns, so stubborn handlers cannot push a lane past its concurrency.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Slf4j(topic = "Kyro")
+class RouteHandler implements HttpHandler {
+
+    private final Object classInstance;
+    private final Method method;
+    private final RestPath restPath;
+    private final Set<KyroEvent> events;
+    private final Gson gson;
+    private final FlightKeyExtractor flightKeyExtractor;
+    private final SingleFlight<EncodedResponse> singleFlight;
+    private final FileSender fileSender;
+    private final UploadSettings uploadSettings;
+    private final long timeoutMillis;
+    private final ExecutorService handlerExecutor;
+    private final RouteMetrics routeMetrics;
+    private final Lane lane;
+    private final TrafficRecorder trafficRecorder;
+    private final Projector projector;
+    private final String fieldsParameter;
+    private final FieldTree projection;
+    private final ThreadLocal<CompletableFuture<Object>> abandonedHandler = new ThreadLocal<>();
+
+    /**
+     * Constructs a new handler for the given route method.
+     *
+     * @param kyro the Kyro instance the route is registered on
+     * @param classInstance the instance containing the route method
+     * @param method the method annotated with {@link RestPath}
+     * @param path the full path the route is registered on
+     */
+    RouteHandler(Kyro kyro, Object classInstance, Method method, String path) {
+        this.classInstance = classInstance;
+        this.method = method;
+        this.restPath = method.getAnnotation(RestPath.class);
+        this.events = kyro.getEvents();
+        this.gson = kyro.getGson();
+        this.fileSender = FileResponse.class.isAssignableFrom(method.getReturnType()) ? kyro.getFileSender() : null;
+        this.uploadSettings = restPath.maxBodySize() >= 0
+                ? kyro.getUploadSettings().withMaxBodySize(restPath.maxBodySize())
+                : kyro.getUploadSettings();
+        this.timeoutMillis = restPath.timeout() >= 0 ? restPath.timeout() : kyro.getDefaultTimeout();
+        this.handlerExecutor = kyro.getHandlerExecutor();
+        this.routeMetrics = kyro.getMetrics().route(restPath.method() + " " + path);
+        this.trafficRecorder = kyro.getTrafficRecorder();
+        this.projector = kyro.getProjector();
+        this.fieldsParameter = kyro.getFieldsParameter();
+
+        Projection projectionAnnotation = method.getAnnotation(Projection.class);
+        try {
+            this.projection = projectionAnnotation != null ? projector.parse(projectionAnnotation.value()) : null;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Route %s has an invalid @Projection: %s".formatted(path, ex.getMessage()));
+        }
+
+        String laneName = restPath.lane().isEmpty() ? classInstance.getClass().getAnnotation(Route.class).lane() : restPath.lane();
+        if (laneName.isEmpty()) {
+            this.lane = null;
+        } else {
+            this.lane = kyro.getLanes().get(laneName);
+            if (lane == null) {
+                throw new IllegalStateException("Route %s uses lane %s which is not configured".formatted(path, laneName));
+            }
+        }
+
+        if (restPath.singleFlight() && restPath.method() == RequestMethod.GET && this.fileSender == null) {
+            this.flightKeyExtractor = createFlightKeyExtractor(restPath.flightKey());
+            this.singleFlight = new SingleFlight<>();
+        } else {
+            if (restPath.singleFlight()) {
+                log.warn("Ignoring singleFlight on {}#{}, only GET endpoints returning JSON can be coalesced",
+                        method.getDeclaringClass().getSimpleName(), method.getName());
+            }
+            this.flightKeyExtractor = null;
+            this.singleFlight = null;
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        // Recording replaces the streams of the exchange, so it has to start before the request wraps them
+        TrafficRecorder.Recording recording = trafficRecorder != null ? trafficRecorder.begin(exchange) : null;
+        Request request = new Request(exchange, uploadSettings, timeoutMillis);
+        if (!request.isWarmup()) {
+            routeMetrics.recordRequest();
+        }
+
+        if (lane == null) {
+            process(exchange, request, recording);
+            return;
+        }
+
+        boolean accepted = lane.execute(() -> {
+            try {
+                process(exchange, request, recording);
+            } catch (Throwable throwable) {
+                log.error("Failed handling request in lane {}:", lane.getName(), throwable);
+                exchange.close();
+            } finally {
+                awaitAbandonedHandler();
+            }
+        });
+
+        if (!accepted) {
+            Response response = new Response();
+            JsonObject jsonObject = new JsonObject();
+
+            response.setResponseCode(ResponseCode.SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            jsonObject.addProperty("success", false);
+            jsonObject.addProperty("error", "Lane %s is saturated".formatted(lane.getName()));
+            sendResponse(exchange, encode(request, response, jsonObject));
+
+            if (recording != null) {
+                recording.finish();
+            }
+        }
+    }
+
+    /**
+     * Processes a request on the thread of its lane.
+     *
+     * @param exchange the exchange to respond to
+     * @param request the request being handled
+     * @param recording the capture of the request, or {@code null} if it is not recorded
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    private void process(HttpExchange exchange, Request request, TrafficRecorder.Recording recording) throws IOException {
+        try {
+            handle(exchange, request);
+        } finally {
+            request.cleanup();
+            if (recording != null) {
+                recording.finish();
+            }
+        }
+    }
+
+    /**
+     * Waits for a handler the current thread gave up on at the deadline of its request.
+     * <p>
+     * The client has already been answered, but the lane slot is only released once the handler returns.
+     * </p>
+     */
+    private void awaitAbandonedHandler() {
+        CompletableFuture<Object> handler = abandonedHandler.get();
+        if (handler == null) {
+            return;
+        }
+
+        abandonedHandler.remove();
+        handler.handle((returned, throwable) -> null).join();
+    }
+
+    /**
+     * Handles a request after it has been wrapped.
+     *
+     * @param exchange the exchange to respond to
+     * @param request the request being handled
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    private void handle(HttpExchange exchange, Request request) throws IOException {
+        Response response = new Response();
+        JsonObject jsonObject = new JsonObject();
+
+        if (fireEvents(events, request, response)) {
+            response.setResponseCode(ResponseCode.FORBIDDEN);
+            response.setResponseCode(null);
+            jsonObject.addProperty("success", false);
+            jsonObject.addProperty("error", "Request has been cancelled internally");
+            sendResponse(exchange, encode(request, response, jsonObject));
+            return;
+        }
+
+        if (request.getMethod() == null) {
+            response.setResponseCode(ResponseCode.BAD_REQUEST);
+            jsonObject.addProperty("success", false);
+            jsonObject.addProperty("error", "Request method is null");
+            sendResponse(exchange, encode(request, response, jsonObject));
+            return;
+        }
+
+        long maxBodySize = uploadSettings.maxBodySize();
+        if (maxBodySize >= 0 && request.getContentLength() > maxBodySize) {
+            response.setResponseCode(ResponseCode.PAYLOAD_TOO_LARGE);
+            jsonObject.addProperty("success", false);
+            jsonObject.addProperty("error", new PayloadTooLargeException(maxBodySize).getMessage());
+            sendResponse(exchange, encode(request, response, jsonObject));
+            return;
+        }
+
+        if (fileSender != null) {
+            invokeFile(exchange, request, response);
+            return;
+        }
+
+        String flightKey = singleFlight != null && request.getMethod() == RequestMethod.GET
+                ? flightKeyExtractor.extract(request)
+                : null;
+
+        if (flightKey != null && fieldsParameter != null && request.getParameter(fieldsParameter) != null) {
+            // Custom keys may leave out the field selection, which must never be shared between selections
+            flightKey += "\n" + fieldsParameter + "=" + request.getParameter(fieldsParameter);
+        }
+
+        EncodedResponse encoded;
+
+        if (flightKey == null) {
+            encoded = invoke(request, response, true);
+        } else {
+            try {
+                // The shared response is answered per request below, so it must always carry a body
+                encoded = singleFlight.execute(flightKey, request.getRemainingTime(), () -> invoke(request, response, false));
+            } catch (TimeoutException ex) {
+                // Only waiting for another request's call times out, the call itself enforces the deadline
+                handleFailure(request, response, jsonObject,
+                        new DeadlineExceededException("Request was not handled within %d ms".formatted(timeoutMillis)));
+                encoded = encode(request, response, jsonObject);
+            } catch (Exception ex) {
+                log.error("Failed handling coalesced request:", ex);
+
+                response.setResponseCode(ResponseCode.INTERNAL_SERVER_ERROR);
+                jsonObject.addProperty("success", false);
+                jsonObject.addProperty("error", ex.getLocalizedMessage());
+                encoded = encode(request, response, jsonObject);
+            }
+        }
+
+        if (isConditional(request) && encoded.body() != null
+                && encoded.responseCode() == ResponseCode.OK
+                && isNotModified(request, encoded.headers())) {
+            encoded = new EncodedResponse(ResponseCode.NOT_MODIFIED, encoded.headers(), null);
+        }
+
+        // Send the final response
+        sendResponse(exchange, encoded);
+    }
+
+    /**
+     * Invokes a route method returning a {@link FileResponse} and streams the file.
+     *
+     * @param exchange the exchange to respond to
+     * @param request the request being handled
+     * @param response the response the handler may modify
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    private void invokeFile(HttpExchange exchange, Request request, Response response) throws IOException {
+        JsonObject jsonObject = new JsonObject();
+
+        try {
+            FileResponse fileResponse = (FileResponse) callHandler(request, response);
+
+            if (fileResponse != null && response.getResponseCode() == ResponseCode.OK) {
+                fileSender.send(exchange, fileResponse.getPath(), response.getHeaders(),
+                        fileResponse.getContentType(), fileResponse.getDownloadName());
+                return;
+            }
+
+            if (response.getResponseCode() == ResponseCode.OK) {
+                response.setResponseCode(ResponseCode.NOT_FOUND);
+            }
+            jsonObject.addProperty("success", false);
+        } catch (IllegalAccessException | InvocationTargetException | DeadlineExceededException ex) {
+            handleFailure(request, response, jsonObject, ex);
+        }
+
+        sendResponse(exchange, encode(request, response, jsonObject));
+    }
+
+    /**
+     * Invokes the route method and encodes its result.
+     *
+     * @param request the request being handled
+     * @param response the response the handler may modify
+     * @param skipUnmodified whether serialization may be skipped when the client already holds the
+     *                       {@link Response#getVersion() version} set by the handler
+     * @return the encoded response
+     */
+    private EncodedResponse invoke(Request request, Response response, boolean skipUnmodified) {
+        JsonObject jsonObject = new JsonObject();
+        FieldTree fields;
+
+        try {
+            fields = selectFields(request);
+        } catch (IllegalArgumentException ex) {
+            response.setResponseCode(ResponseCode.BAD_REQUEST);
+            jsonObject.addProperty("success", false);
+            jsonObject.addProperty("error", ex.getMessage());
+            return encode(request, response, jsonObject);
+        }
+
+        try {
+            Object returned = callHandler(request, response);
+
+            if (method.getReturnType() != Void.class) {
+                if (isConditional(request) && response.getResponseCode() == ResponseCode.OK) {
+                    applyValidators(response, fields);
+
+                    if (skipUnmodified && response.getVersion() != null && isNotModified(request, response.getHeaders())) {
+                        return new EncodedResponse(ResponseCode.NOT_MODIFIED, Headers.of(response.getHeaders()), null);
+                    }
+                }
+
+                jsonObject.addProperty("success", true);
+                jsonObject.add("value", fields != null ? projector.toJsonTree(returned, fields) : gson.toJsonTree(returned));
+            } else if (restPath.method() == RequestMethod.GET) {
+                response.setResponseCode(ResponseCode.BAD_REQUEST);
+            }
+        } catch (IllegalAccessException | InvocationTargetException | DeadlineExceededException ex) {
+            handleFailure(request, response, jsonObject, ex);
+        }
+
+        return encode(request, response, jsonObject);
+    }
+
+    /**
+     * Gets the fields of the returned value to serialize.
+     *
+     * @param request the request being handled
+     * @return the selected fields, or {@code null} to serialize the whole value
+     * @throws IllegalArgumentException if the field selection of the request is malformed
+     */
+    private FieldTree selectFields(Request request) {
+        String requested = fieldsParameter != null ? request.getParameter(fieldsParameter) : null;
+
+        if (requested == null) {
+            return projection;
+        }
+
+        FieldTree fields = projector.parse(requested);
+        return projection != null ? projection.intersect(fields) : fields;
+    }
+
+    /**
+     * Calls the route method, enforcing the deadline of the request.
+     * <p>
+     * Without a deadline the method is called on the current thread. Otherwise it runs on the handler
+     * executor while the current thread waits for at most the remaining time; once that has passed the
+     * handler thread is interrupted and a {@link DeadlineExceededException} is thrown right away, so the
+     * client is answered at the deadline even if the handler ignores the interrupt. The handler works on
+     * its own {@link Response}, which is only copied over if it returns in time, so a late result is
+     * discarded. A request whose deadline passed before the handler could start, e.g. while queued in
+     * a lane, fails without calling the handler. Handlers abandoned on a lane thread are left for
+     * {@link #awaitAbandonedHandler()}.
+     * </p>
+     *
+     * @param request the request being handled
+     * @param response the response the handler may modify
+     * @return the value returned by the route method
+     * @throws IllegalAccessException if the route method is not accessible
+     * @throws InvocationTargetException if the route method threw an exception
+     * @throws DeadlineExceededException if the route method did not finish before the deadline
+     */
+    private Object callHandler(Request request, Response response) throws IllegalAccessException, InvocationTargetException {
+        if (!request.hasDeadline()) {
+            return method.invoke(classInstance, request, response);
+        }
+
+        long remainingNanos = request.getRemainingTime().toNanos();
+        if (remainingNanos <= 0) {
+            throw new DeadlineExceededException("Request was not handled within %d ms".formatted(timeoutMillis));
+        }
+
+        Response handlerResponse = new Response();
+        copyResponse(response, handlerResponse);
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Future<?> task = handlerExecutor.submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // Abandoned before it started
+                return;
+            }
+            try {
+                result.complete(method.invoke(classInstance, request, handlerResponse));
+            } catch (Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        try {
+            Object returned = result.get(remainingNanos, TimeUnit.NANOSECONDS);
+            copyResponse(handlerResponse, response);
+            return returned;
+        } catch (TimeoutException ex) {
+            abandon(task, started, result);
+            throw new DeadlineExceededException("Request was not handled within %d ms".formatted(timeoutMillis));
+        } catch (InterruptedException ex) {
+            abandon(task, started, result);
+            Thread.currentThread().interrupt();
+            throw new InvocationTargetException(ex);
+        } catch (ExecutionException ex) {
+            copyResponse(handlerResponse, response);
+            Throwable cause = ex.getCause();
+            if (cause instanceof IllegalAccessException illegalAccess) {
+                throw illegalAccess;
+            }
+            if (cause instanceof InvocationTargetException invocationTarget) {
+                throw invocationTarget;
+            }
+            throw new InvocationTargetException(cause);
+        }
+    }
+
+    /**
+     * Stops waiting for a handler call, interrupting the handler if it already started.
+     *
+     * @param task the task calling the handler
+     * @param started whether the handler started, claimed here if it did not
+     * @param result the result of the handler, completed once it returns
+     */
+    private void abandon(Future<?> task, AtomicBoolean started, CompletableFuture<Object> result) {
+        if (started.compareAndSet(false, true)) {
+            task.cancel(false);
+            return;
+        }
+
+        task.cancel(true);
+        if (lane != null) {
+            abandonedHandler.set(result);
+        }
+    }
+
+    /**
+     * Copies the response code, headers and validators of one response to another.
+     *
+     * @param from the response to copy
+     * @param to the response to copy to
+     */
+    private static void copyResponse(Response from, Response to) {
+        to.setResponseCode(from.getResponseCode());
+        to.getHeaders().putAll(from.getHeaders());
+        to.setVersion(from.getVersion());
+        to.setLastModified(from.getLastModified());
+    }
+
+    /**
+     * Fills in the response of a failed handler call.
+     *
+     * @param request the request the handler was called for
+     * @param response the response to set the response code on
+     * @param jsonObject the JSON object to add the error to
+     * @param ex the exception the call failed with
+     */
+    private void handleFailure(Request request, Response response, JsonObject jsonObject, Exception ex) {
+        Throwable cause = ex instanceof InvocationTargetException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause instanceof DeadlineExceededException) {
+            if (!request.isWarmup()) {
+                routeMetrics.recordTimeout();
+            }
+            response.setResponseCode(ResponseCode.GATEWAY_TIMEOUT);
+        } else if (cause instanceof PayloadTooLargeException) {
+            response.setResponseCode(ResponseCode.PAYLOAD_TOO_LARGE);
+        } else {
+            log.error("Failed handling request:", ex);
+            if (!request.isWarmup()) {
+                routeMetrics.recordError();
+            }
+
+            if (response.getResponseCode() == ResponseCode.OK) {
+                response.setResponseCode(ResponseCode.INTERNAL_SERVER_ERROR);
+            }
+        }
+
+        jsonObject.addProperty("success", false);
+        jsonObject.addProperty("error", cause.getLocalizedMessage());
+    }
+
+    /**
+     * Encodes the JSON envelope of a response.
+     * <p>
+     * Successful responses to conditional requests receive an {@code ETag}. Unless the handler provided
+     * one, it is derived from a hash of the body computed while the body is being written.
+     * </p>
+     *
+     * @param request the request being answered
+     * @param response the response object containing the response code and headers
+     * @param jsonObject the JSON object to be sent in the response body
+     * @return the encoded response
+     */
+    private EncodedResponse encode(Request request, Response response, JsonObject jsonObject) {
+        boolean validated = isConditional(request) && response.getResponseCode() == ResponseCode.OK;
+
+        if (validated) {
+            applyValidators(response, null);
+        }
+
+        if (!request.getTrace().isEmpty()) {
+            response.setHeader("Server-Timing", request.getTrace().toServerTiming());
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        HashingOutputStream hashingStream = new HashingOutputStream(buffer);
+
+        try (Writer writer = new OutputStreamWriter(hashingStream, StandardCharsets.UTF_8)) {
+            gson.toJson(jsonObject, writer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        byte[] body = buffer.toByteArray();
+
+        if (log.isInfoEnabled() && !request.isWarmup()) {
+            log.info(new String(body, StandardCharsets.UTF_8));
+        }
+
+        if (validated && response.getHeader("ETag") == null) {
+            response.setHeader("ETag", "\"" + Long.toHexString(hashingStream.getHash()) + "\"");
+        }
+
+        return new EncodedResponse(response.getResponseCode(), Headers.of(response.getHeaders()), body);
+    }
+
+    /**
+     * Copies the handler provided version and modification time into the validator headers.
+     *
+     * @param response the response to set the headers on
+     * @param fields the fields the value is serialized with, or {@code null} if it is serialized whole
+     */
+    private void applyValidators(Response response, FieldTree fields) {
+        if (response.getVersion() != null && response.getHeader("ETag") == null) {
+            String entityTag = response.getVersion();
+            if (fields != null) {
+                // Every field selection is a different representation of the same version
+                entityTag += "-" + Long.toHexString(HashingOutputStream.hash(fields.toString().getBytes(StandardCharsets.UTF_8)));
+            }
+            response.setHeader("ETag", "\"" + entityTag + "\"");
+        }
+        if (response.getLastModified() != null && response.getHeader("Last-Modified") == null) {
+            response.setHeader("Last-Modified", HTTPUtils.formatDate(response.getLastModified()));
+        }
+    }
+
+    /**
+     * Checks whether conditional request headers are honoured for the given request.
+     *
+     * @param request the request being handled
+     * @return {@code true} if this is a GET request on a GET endpoint
+     */
+    private boolean isConditional(Request request) {
+        return restPath.method() == RequestMethod.GET && request.getMethod() == RequestMethod.GET;
+    }
+
+    /**
+     * Checks whether the client already holds the response described by the given validator headers.
+     * <p>
+     * {@code If-None-Match} takes precedence; {@code If-Modified-Since} is only evaluated when the
+     * request carries no entity tags.
+     * </p>
+     *
+     * @param request the request being handled
+     * @param headers the response headers containing {@code ETag} and {@code Last-Modified}
+     * @return {@code true} if a {@link ResponseCode#NOT_MODIFIED} response should be sent
+     */
+    private boolean isNotModified(Request request, Headers headers) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return HTTPUtils.matchesEntityTag(ifNoneMatch, headers.getFirst("ETag"));
+        }
+
+        Instant modifiedSince = HTTPUtils.parseDate(request.getHeader("If-Modified-Since"));
+        Instant lastModified = HTTPUtils.parseDate(headers.getFirst("Last-Modified"));
+
+        return modifiedSince != null && lastModified != null && !lastModified.isAfter(modifiedSince);
+    }
+
+    /**
+     * Sends the HTTP response back to the client.
+     *
+     * @param exchange the HTTP exchange containing the response
+     * @param encoded the encoded response to send
+     * @throws IOException if an I/O error occurs while sending the response
+     */
+    private void sendResponse(HttpExchange exchange, EncodedResponse encoded) throws IOException {
+        byte[] jsonBytes = encoded.body();
+
+        if (jsonBytes != null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        exchange.getResponseHeaders().putAll(encoded.headers());
+
+        if (jsonBytes == null) {
+            exchange.sendResponseHeaders(encoded.responseCode().getCode(), -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(encoded.responseCode().getCode(), jsonBytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(jsonBytes);
+        } catch (Exception e) {
+            log.error("Error while writing response: ", e);
+        }
+    }
+
+    /**
+     * Fires the given events for a request.
+     *
+     * @param events the events to fire
+     * @param request the request being handled
+     * @param response the response the events may modify
+     * @return {@code true} if any {@link Cancellable} event cancelled the request
+     */
+    static boolean fireEvents(Set<KyroEvent> events, Request request, Response response) {
+        boolean cancelled = false;
+
+        for (KyroEvent event : events) {
+            event.handle(request, response);
+
+            if (event instanceof Cancellable cancellableEvent) {
+                if (cancellableEvent.isCancelled()) {
+                    cancelled = true;
+                }
+            }
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Instantiates the flight key extractor declared on a route.
+     *
+     * @param type the extractor class
+     * @return a new extractor instance
+     * @throws IllegalStateException if the extractor cannot be instantiated
+     */
+    private static FlightKeyExtractor createFlightKeyExtractor(Class<? extends FlightKeyExtractor> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not instantiate flight key extractor %s".formatted(type.getSimpleName()), ex);
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package me.luxoru.kyro;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import me.luxoru.kyro.event.KyroEvent;
+import me.luxoru.kyro.file.FileSender;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.response.ResponseCode;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Serves the files of a directory below a context path.
+ * <p>
+ * A request for {@code <contextPath>/a/b.txt} is answered with {@code <directory>/a/b.txt}. Paths that
+ * resolve outside of the directory, including through symbolic links, are answered with
+ * {@link ResponseCode#NOT_FOUND}. {@code HEAD} requests are answered like {@code GET} without the body.
+ * </p>
+ *
+ * @author Luxoru
+ */
+class StaticFileHandler implements HttpHandler {
+
+    private final String contextPath;
+    private final Path directory;
+    private final Set<KyroEvent> events;
+    private final FileSender fileSender;
+
+    /**
+     * Constructs a new handler serving the given directory.
+     *
+     * @param contextPath the path the directory is served below
+     * @param directory the directory to serve
+     * @param events the set of events to handle during request processing
+     * @param fileSender the sender used to stream files
+     */
+    StaticFileHandler(String contextPath, Path directory, Set<KyroEvent> events, FileSender fileSender) {
+        this.contextPath = contextPath;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.events = events;
+        this.fileSender = fileSender;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Request request = new Request(exchange);
+        Response response = new Response();
+
+        if (RouteHandler.fireEvents(events, request, response)) {
+            exchange.sendResponseHeaders(ResponseCode.FORBIDDEN.getCode(), -1);
+            exchange.close();
+            return;
+        }
+
+        if (request.getMethod() != RequestMethod.GET && !exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+            exchange.sendResponseHeaders(ResponseCode.METHOD_NOT_ALLOWED.getCode(), -1);
+            exchange.close();
+            return;
+        }
+
+        String relative = request.getURI().getPath().substring(contextPath.length());
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+
+        Path file = relative.isEmpty() ? null : resolve(relative);
+        if (file == null) {
+            exchange.sendResponseHeaders(ResponseCode.NOT_FOUND.getCode(), -1);
+            exchange.close();
+            return;
+        }
+
+        fileSender.send(exchange, file, response.getHeaders(), null, null);
+    }
+
+    /**
+     * Resolves a request path against the served directory.
+     * <p>
+     * The check is made on real paths, so a symbolic link inside the directory cannot expose a file outside of it.
+     * </p>
+     *
+     * @param relative the request path below the context path
+     * @return the real path of the file, or {@code null} if it does not exist or lies outside of the directory
+     * @throws IOException if the file system cannot be queried
+     */
+    private Path resolve(String relative) throws IOException {
+        try {
+            Path file = directory.resolve(relative).normalize();
+            if (!file.startsWith(directory)) {
+                return null;
+            }
+
+            Path realDirectory = directory.toRealPath();
+            Path realFile = file.toRealPath();
+            return realFile.startsWith(realDirectory) ? realFile : null;
+        } catch (InvalidPathException | NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+}
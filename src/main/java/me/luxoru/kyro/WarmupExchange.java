@@ -0,0 +1,177 @@
+package me.luxoru.kyro;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import me.luxoru.kyro.request.Request;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A synthetic, in-process {@link HttpExchange} used to warm up routes before the server is bound.
+ * <p>
+ * The response is written to a discarding stream. The exchange carries the {@link Request#WARMUP_ATTRIBUTE}
+ * attribute so handlers can recognise warm-up traffic through {@link Request#isWarmup()}.
+ * </p>
+ *
+ * @author Luxoru
+ */
+class WarmupExchange extends HttpExchange {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress("127.0.0.1", 0);
+
+    private final String method;
+    private final URI uri;
+    private final Headers requestHeaders = new Headers();
+    private final Headers responseHeaders = new Headers();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private InputStream requestBody;
+    private OutputStream responseBody = new DiscardingOutputStream();
+    private int responseCode = -1;
+
+    WarmupExchange(String method, URI uri, byte[] body) {
+        this.method = method;
+        this.uri = uri;
+        this.requestBody = new ByteArrayInputStream(body);
+        this.attributes.put(Request.WARMUP_ATTRIBUTE, Boolean.TRUE);
+        if (body.length > 0) {
+            requestHeaders.set("Content-Length", Integer.toString(body.length));
+        }
+    }
+
+    /**
+     * Waits for the handler to finish the exchange.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return {@code true} if the exchange was closed in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitClose(long timeoutMillis) throws InterruptedException {
+        return closed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        closed.countDown();
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) {
+        this.responseCode = rCode;
+        if (responseLength == -1) {
+            close();
+        }
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            requestBody = i;
+        }
+        if (o != null) {
+            responseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Discards the response body and finishes the exchange when closed, like the real response stream does.
+     */
+    private final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void close() {
+            WarmupExchange.this.close();
+        }
+
+    }
+
+}
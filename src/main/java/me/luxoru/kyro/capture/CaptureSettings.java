@@ -0,0 +1,91 @@
+package me.luxoru.kyro.capture;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Configuration of a {@link TrafficRecorder}.
+ *
+ * @param file the file the capture log is written to, it is replaced if it exists
+ * @param maxBytes the maximum size of the capture log, recording stops once it is full
+ * @param sampleRate the fraction of requests recorded, between {@code 0} and {@code 1}
+ * @param maxBodyBytes the maximum number of bytes of a request body recorded, longer bodies are truncated
+ * @param redactedHeaders the names of request headers whose values are not recorded
+ *
+ * @author Luxoru
+ */
+public record CaptureSettings(Path file, long maxBytes, double sampleRate, int maxBodyBytes, Set<String> redactedHeaders) {
+
+    /**
+     * The headers redacted by default, as they usually carry credentials.
+     */
+    public static final Set<String> DEFAULT_REDACTED_HEADERS = Set.of("Authorization", "Cookie", "Proxy-Authorization");
+
+    public CaptureSettings {
+        if (file == null) {
+            throw new IllegalArgumentException("Capture file must not be null");
+        }
+        if (maxBytes < TrafficLog.HEADER_SIZE || maxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxBytes must be between %d and %d".formatted(TrafficLog.HEADER_SIZE, Integer.MAX_VALUE));
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("maxBodyBytes must not be negative");
+        }
+        redactedHeaders = Set.copyOf(redactedHeaders);
+    }
+
+    /**
+     * Creates settings recording every request to a log of at most 64 MiB, with bodies truncated to 64 KiB
+     * and the {@link #DEFAULT_REDACTED_HEADERS} redacted.
+     *
+     * @param file the file the capture log is written to
+     * @return the new settings
+     */
+    public static CaptureSettings of(Path file) {
+        return new CaptureSettings(file, 64L * 1024 * 1024, 1.0, 64 * 1024, DEFAULT_REDACTED_HEADERS);
+    }
+
+    /**
+     * Returns a copy of these settings with a different size limit.
+     *
+     * @param maxBytes the maximum size of the capture log
+     * @return the new settings
+     */
+    public CaptureSettings withMaxBytes(long maxBytes) {
+        return new CaptureSettings(file, maxBytes, sampleRate, maxBodyBytes, redactedHeaders);
+    }
+
+    /**
+     * Returns a copy of these settings with a different sample rate.
+     *
+     * @param sampleRate the fraction of requests recorded, between {@code 0} and {@code 1}
+     * @return the new settings
+     */
+    public CaptureSettings withSampleRate(double sampleRate) {
+        return new CaptureSettings(file, maxBytes, sampleRate, maxBodyBytes, redactedHeaders);
+    }
+
+    /**
+     * Returns a copy of these settings with a different body limit.
+     *
+     * @param maxBodyBytes the maximum number of bytes of a request body recorded
+     * @return the new settings
+     */
+    public CaptureSettings withMaxBodyBytes(int maxBodyBytes) {
+        return new CaptureSettings(file, maxBytes, sampleRate, maxBodyBytes, redactedHeaders);
+    }
+
+    /**
+     * Returns a copy of these settings redacting different headers.
+     *
+     * @param redactedHeaders the names of request headers whose values are not recorded
+     * @return the new settings
+     */
+    public CaptureSettings withRedactedHeaders(Set<String> redactedHeaders) {
+        return new CaptureSettings(file, maxBytes, sampleRate, maxBodyBytes, redactedHeaders);
+    }
+
+}
@@ -0,0 +1,25 @@
+package me.luxoru.kyro.capture;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request read back from a capture log.
+ *
+ * @param offsetNanos the time the request arrived, relative to the start of the capture
+ * @param durationNanos the time the server took to handle the request
+ * @param responseCode the response code the server answered with
+ * @param responseHash the 64-bit FNV-1a hash of the response body the server sent
+ * @param method the request method
+ * @param uri the request URI as received, i.e. the raw path and query
+ * @param headers the recorded request headers
+ * @param redactedHeaders the names of the headers recorded without their value, once per occurrence
+ * @param body the recorded request body
+ * @param bodyTruncated whether the body was longer than the recorded part
+ *
+ * @author Luxoru
+ */
+public record CapturedRequest(long offsetNanos, long durationNanos, int responseCode, long responseHash,
+                              String method, String uri, List<Map.Entry<String, String>> headers,
+                              List<String> redactedHeaders, byte[] body, boolean bodyTruncated) {
+}
@@ -0,0 +1,180 @@
+package me.luxoru.kyro.capture;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of every request of a capture log, either as recorded or as observed while replaying it.
+ * <p>
+ * Results are saved as plain text, one line per request, so the result of replaying a log against one build
+ * can be kept and {@link #compare(ReplayResult) compared} with the result of replaying it against another.
+ * </p>
+ *
+ * @param samples the outcome of each request, in the order of the capture log
+ *
+ * @author Luxoru
+ */
+public record ReplayResult(List<Sample> samples) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+
+    public ReplayResult {
+        samples = List.copyOf(samples);
+    }
+
+    /**
+     * The outcome of a single request.
+     *
+     * @param responseCode the response code, or {@code -1} if the request failed
+     * @param latencyNanos the time the request took
+     * @param responseHash the 64-bit FNV-1a hash of the response body
+     */
+    public record Sample(int responseCode, long latencyNanos, long responseHash) {
+    }
+
+    /**
+     * Creates a result from the outcomes recorded in a capture log.
+     * <p>
+     * Recorded latencies are measured inside the server, from dispatch until the response is written, so they
+     * do not include the network and are lower than latencies measured while replaying.
+     * </p>
+     *
+     * @param requests the captured requests
+     * @return the recorded result
+     */
+    public static ReplayResult fromCapture(List<CapturedRequest> requests) {
+        List<Sample> samples = new ArrayList<>(requests.size());
+        for (CapturedRequest request : requests) {
+            samples.add(new Sample(request.responseCode(), request.durationNanos(), request.responseHash()));
+        }
+        return new ReplayResult(samples);
+    }
+
+    /**
+     * Loads a result saved with {@link #save(Path)}.
+     *
+     * @param file the file to load
+     * @return the loaded result
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static ReplayResult load(Path file) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split(",");
+            if (columns.length != 3) {
+                throw new IOException("Malformed replay result line: %s".formatted(line));
+            }
+            try {
+                samples.add(new Sample(Integer.parseInt(columns[0]), Long.parseLong(columns[1]),
+                        Long.parseUnsignedLong(columns[2], 16)));
+            } catch (NumberFormatException ex) {
+                throw new IOException("Malformed replay result line: %s".formatted(line), ex);
+            }
+        }
+        return new ReplayResult(samples);
+    }
+
+    /**
+     * Saves the result as plain text.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# responseCode,latencyNanos,responseHash");
+            writer.newLine();
+            for (Sample sample : samples) {
+                writer.write(sample.responseCode() + "," + sample.latencyNanos() + "," + Long.toHexString(sample.responseHash()));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets a percentile of the latencies of all successful requests.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the latency in nanoseconds, or {@code 0} if no request succeeded
+     */
+    public long getLatencyPercentile(double percentile) {
+        long[] latencies = samples.stream()
+                .filter(sample -> sample.responseCode() != -1)
+                .mapToLong(Sample::latencyNanos)
+                .sorted()
+                .toArray();
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+    }
+
+    /**
+     * Gets the number of requests that failed without a response.
+     *
+     * @return the failed count
+     */
+    public long getFailures() {
+        return samples.stream().filter(sample -> sample.responseCode() == -1).count();
+    }
+
+    /**
+     * Compares this result with a baseline, request by request.
+     *
+     * @param baseline the result to compare with, e.g. the replay against the previous build
+     * @return a human readable report of the latency distributions and of the requests whose response
+     * code or response body differ
+     * @throws IllegalArgumentException if the results are not of the same capture log
+     */
+    public String compare(ReplayResult baseline) {
+        if (baseline.samples.size() != samples.size()) {
+            throw new IllegalArgumentException("Cannot compare results of %d and %d requests"
+                    .formatted(baseline.samples.size(), samples.size()));
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("%-10s %14s %14s %10s%n".formatted("latency", "baseline (ms)", "candidate (ms)", "change"));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            long before = baseline.getLatencyPercentile(PERCENTILES[i]);
+            long after = getLatencyPercentile(PERCENTILES[i]);
+            String change = before == 0 ? "n/a" : "%+.1f%%".formatted((after - before) * 100.0 / before);
+            report.append("%-10s %14.3f %14.3f %10s%n".formatted(PERCENTILE_LABELS[i], before / 1e6, after / 1e6, change));
+        }
+
+        int codeMismatches = 0;
+        int hashMismatches = 0;
+        List<Integer> examples = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            Sample before = baseline.samples.get(i);
+            Sample after = samples.get(i);
+            boolean mismatch = false;
+            if (before.responseCode() != after.responseCode()) {
+                codeMismatches++;
+                mismatch = true;
+            } else if (before.responseHash() != after.responseHash()) {
+                hashMismatches++;
+                mismatch = true;
+            }
+            if (mismatch && examples.size() < 10) {
+                examples.add(i);
+            }
+        }
+
+        report.append("requests: %d, failures: %d (baseline %d)%n".formatted(samples.size(), getFailures(), baseline.getFailures()));
+        report.append("response code mismatches: %d, response body mismatches: %d%n".formatted(codeMismatches, hashMismatches));
+        if (!examples.isEmpty()) {
+            report.append("first mismatching requests: %s%n".formatted(examples));
+        }
+        return report.toString();
+    }
+
+}
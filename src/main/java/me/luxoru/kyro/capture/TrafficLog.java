@@ -0,0 +1,137 @@
+package me.luxoru.kyro.capture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary format of capture logs written by {@link TrafficRecorder}.
+ * <p>
+ * A log starts with a header holding {@link #MAGIC}, {@link #VERSION} and the wall clock time the capture
+ * started at. Records follow back to back, each prefixed with its length. The log is pre-sized, so the
+ * zero filled space after the last record reads as a record of length {@code 0}, which ends the log.
+ * </p>
+ * <p>
+ * A record holds, in order: the arrival offset, the duration, the response code and response hash, a flags
+ * byte, the method, the URI, the header count followed by the headers, and the body length followed by the
+ * body. Each header is written as its name, a flags byte marking redacted headers and its value, which is
+ * empty for redacted headers. Strings are written as an unsigned short length followed by their UTF-8 bytes.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public final class TrafficLog {
+
+    /**
+     * The first four bytes of every capture log, {@code KYRC}.
+     */
+    public static final int MAGIC = 0x4B595243;
+
+    /**
+     * The version of the format.
+     */
+    public static final short VERSION = 2;
+
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES;
+    static final byte FLAG_BODY_TRUNCATED = 1;
+    static final byte FLAG_HEADER_REDACTED = 1;
+    static final int MAX_STRING_LENGTH = 0xffff;
+
+    private TrafficLog() {
+    }
+
+    /**
+     * Reads every request of a capture log.
+     *
+     * @param file the capture log
+     * @return the requests in the order they were recorded
+     * @throws IOException if the file cannot be read or is not a capture log
+     */
+    public static List<CapturedRequest> read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("%s is not a Kyro capture log".formatted(file));
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported capture log version %d".formatted(version));
+        }
+        buffer.getLong();
+
+        List<CapturedRequest> requests = new ArrayList<>();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Corrupt capture log: record of %d bytes at offset %d".formatted(length, buffer.position() - Integer.BYTES));
+            }
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            requests.add(readRecord(record));
+        }
+        return requests;
+    }
+
+    private static CapturedRequest readRecord(ByteBuffer record) {
+        long offsetNanos = record.getLong();
+        long durationNanos = record.getLong();
+        int responseCode = record.getInt();
+        long responseHash = record.getLong();
+        byte flags = record.get();
+        String method = readString(record);
+        String uri = readString(record);
+
+        int headerCount = record.getShort() & 0xffff;
+        List<Map.Entry<String, String>> headers = new ArrayList<>(headerCount);
+        List<String> redactedHeaders = new ArrayList<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(record);
+            boolean redacted = (record.get() & FLAG_HEADER_REDACTED) != 0;
+            String value = readString(record);
+            if (redacted) {
+                redactedHeaders.add(name);
+            } else {
+                headers.add(Map.entry(name, value));
+            }
+        }
+
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+
+        return new CapturedRequest(offsetNanos, durationNanos, responseCode, responseHash, method, uri,
+                List.copyOf(headers), List.copyOf(redactedHeaders), body, (flags & FLAG_BODY_TRUNCATED) != 0);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the UTF-8 bytes of a string, cut to the maximum length a string may have in the log.
+     */
+    static byte[] encodeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_LENGTH) {
+            return bytes;
+        }
+        byte[] cut = new byte[MAX_STRING_LENGTH];
+        System.arraycopy(bytes, 0, cut, 0, MAX_STRING_LENGTH);
+        return cut;
+    }
+
+}
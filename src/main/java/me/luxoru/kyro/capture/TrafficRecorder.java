@@ -0,0 +1,328 @@
+package me.luxoru.kyro.capture;
+
+import com.sun.net.httpserver.HttpExchange;
+import lombok.extern.slf4j.Slf4j;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.util.HashingOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records a sample of the requests Kyro handles to a memory-mapped, append-only {@link TrafficLog}.
+ * <p>
+ * The log is mapped at its maximum size up front, so appending a record is a copy into memory and the
+ * dispatch path never blocks on disk I/O. Once the log is full, further requests are counted as dropped.
+ * Logs are read back with {@link TrafficLog#read(java.nio.file.Path)} and replayed with
+ * {@link TrafficReplayer}.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Slf4j(topic = "Kyro")
+public class TrafficRecorder implements AutoCloseable {
+
+    private final CaptureSettings settings;
+    private final Set<String> redactedHeaders;
+    private final MappedByteBuffer buffer;
+    private final long startedNanos;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private boolean closed;
+
+    /**
+     * Creates the capture log and maps it into memory.
+     *
+     * @param settings the configuration of the capture
+     * @throws IOException if the log cannot be created
+     */
+    public TrafficRecorder(CaptureSettings settings) throws IOException {
+        this.settings = settings;
+        this.redactedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        this.redactedHeaders.addAll(settings.redactedHeaders());
+
+        try (FileChannel channel = FileChannel.open(settings.file(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, settings.maxBytes());
+        }
+
+        this.startedNanos = System.nanoTime();
+        buffer.putInt(TrafficLog.MAGIC);
+        buffer.putShort(TrafficLog.VERSION);
+        buffer.putLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Starts recording an exchange, if it is sampled.
+     * <p>
+     * The streams of a recorded exchange are replaced so the request body and the hash of the response body
+     * are captured as the handler reads and writes them, on the handler's thread. This must therefore be called
+     * before anything reads the request body. A body the handler does not read in full is recorded as
+     * truncated. Warm-up requests are never recorded.
+     * </p>
+     *
+     * @param exchange the exchange that just arrived
+     * @return the recording to {@link Recording#finish() finish} once the exchange is answered, or
+     * {@code null} if the exchange is not recorded
+     */
+    public Recording begin(HttpExchange exchange) {
+        if (exchange.getAttribute(Request.WARMUP_ATTRIBUTE) != null || isClosed()) {
+            return null;
+        }
+        double sampleRate = settings.sampleRate();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        return new Recording(exchange);
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Gets the number of requests written to the log.
+     *
+     * @return the recorded count
+     */
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * Gets the number of sampled requests that did not fit in the log.
+     *
+     * @return the dropped count
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void append(byte[] record) {
+        synchronized (this) {
+            if (!closed && buffer.remaining() >= Integer.BYTES + record.length) {
+                // The length goes in last, so a reader never sees a length before its record
+                int position = buffer.position();
+                buffer.position(position + Integer.BYTES);
+                buffer.put(record);
+                buffer.putInt(position, record.length);
+                recorded.increment();
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Flushes the log to disk and stops recording.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+        }
+        log.info("Captured {} requests to {} ({} dropped)", getRecorded(), settings.file(), getDropped());
+    }
+
+    /**
+     * A request being recorded.
+     */
+    public final class Recording {
+
+        private final HttpExchange exchange;
+        private final long arrivedNanos;
+        private final ByteArrayOutputStream body;
+        private final HashingOutputStream responseBody;
+        private final RecordingInputStream requestBody;
+        private volatile boolean bodyTruncated;
+
+        private Recording(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.arrivedNanos = System.nanoTime();
+            this.body = new ByteArrayOutputStream();
+            this.responseBody = new HashingOutputStream(exchange.getResponseBody());
+            this.requestBody = new RecordingInputStream(exchange.getRequestBody());
+
+            exchange.setStreams(requestBody, responseBody);
+        }
+
+        /**
+         * Writes the request to the log, together with how long it took and the response it received.
+         */
+        public void finish() {
+            long durationNanos = System.nanoTime() - arrivedNanos;
+            if (!requestBody.isFullyRead()) {
+                bodyTruncated = true;
+            }
+            try {
+                append(encode(durationNanos));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to capture request {}:", exchange.getRequestURI(), ex);
+                dropped.increment();
+            }
+        }
+
+        private byte[] encode(long durationNanos) {
+            byte[] method = TrafficLog.encodeString(exchange.getRequestMethod());
+            byte[] uri = TrafficLog.encodeString(exchange.getRequestURI().toString());
+            byte[] bodyBytes = body.toByteArray();
+
+            List<EncodedHeader> headers = new ArrayList<>();
+            int size = Long.BYTES * 3 + Integer.BYTES + 1 + Short.BYTES * 2 + method.length + uri.length + Short.BYTES;
+
+            for (Map.Entry<String, List<String>> entry : exchange.getRequestHeaders().entrySet()) {
+                byte[] name = TrafficLog.encodeString(entry.getKey());
+                boolean redacted = redactedHeaders.contains(entry.getKey());
+                for (String value : entry.getValue()) {
+                    if (headers.size() == TrafficLog.MAX_STRING_LENGTH) {
+                        break;
+                    }
+                    EncodedHeader header = new EncodedHeader(name, redacted ? new byte[0] : TrafficLog.encodeString(value), redacted);
+                    headers.add(header);
+                    size += Short.BYTES * 2 + 1 + name.length + header.value().length;
+                }
+            }
+            size += Integer.BYTES + bodyBytes.length;
+
+            ByteBuffer record = ByteBuffer.allocate(size);
+            record.putLong(arrivedNanos - startedNanos);
+            record.putLong(durationNanos);
+            record.putInt(exchange.getResponseCode());
+            record.putLong(responseBody.getHash());
+            record.put(bodyTruncated ? TrafficLog.FLAG_BODY_TRUNCATED : 0);
+            putString(record, method);
+            putString(record, uri);
+            record.putShort((short) headers.size());
+            for (EncodedHeader header : headers) {
+                putString(record, header.name());
+                record.put(header.redacted() ? TrafficLog.FLAG_HEADER_REDACTED : 0);
+                putString(record, header.value());
+            }
+            record.putInt(bodyBytes.length);
+            record.put(bodyBytes);
+            return record.array();
+        }
+
+        private static void putString(ByteBuffer buffer, byte[] bytes) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+
+        private static boolean isChunked(HttpExchange exchange) {
+            String transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+            return transferEncoding != null && transferEncoding.toLowerCase().contains("chunked");
+        }
+
+        private static long getContentLength(HttpExchange exchange) {
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength == null) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+
+        /**
+         * Copies the bytes the handler reads from the body, up to the body limit of the capture.
+         */
+        private final class RecordingInputStream extends FilterInputStream {
+
+            private volatile long bytesRead;
+            private volatile boolean ended;
+
+            private RecordingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    record(new byte[]{(byte) b}, 0, 1);
+                } else {
+                    ended = true;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    record(b, off, read);
+                } else if (read == -1) {
+                    ended = true;
+                }
+                return read;
+            }
+
+            /**
+             * Checks whether the handler read the whole body, so nothing but the body limit cut the recording.
+             */
+            private boolean isFullyRead() {
+                if (ended) {
+                    return true;
+                }
+                long contentLength = getContentLength(exchange);
+                return contentLength >= 0 ? bytesRead >= contentLength : !isChunked(exchange);
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                // Skipped bytes cannot be recorded, read them instead
+                byte[] skipped = new byte[(int) Math.min(n, 8192)];
+                int read = read(skipped, 0, skipped.length);
+                return Math.max(read, 0);
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+
+            private void record(byte[] b, int off, int len) {
+                bytesRead += len;
+                int room = settings.maxBodyBytes() - body.size();
+                if (len > room) {
+                    bodyTruncated = true;
+                }
+                if (room > 0) {
+                    body.write(b, off, Math.min(len, room));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A request header encoded for the log.
+     *
+     * @param name the encoded name
+     * @param value the encoded value, empty if the header is redacted
+     * @param redacted whether the value has been left out
+     */
+    private record EncodedHeader(byte[] name, byte[] value, boolean redacted) {
+    }
+
+}
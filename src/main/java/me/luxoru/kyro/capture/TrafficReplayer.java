@@ -0,0 +1,290 @@
+package me.luxoru.kyro.capture;
+
+import me.luxoru.kyro.util.HashingOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a capture log back against a running Kyro instance.
+ * <p>
+ * Requests are sent at the pace they were recorded at, optionally sped up, each on its own virtual thread so
+ * a slow response does not delay the requests scheduled after it. The result records the latency, response
+ * code and response body hash of every request and can be compared with the capture itself or with the
+ * result of replaying the same log against another build.
+ * </p>
+ * <p>
+ * Redacted headers were recorded without their value and are left out of replayed requests, unless a
+ * substitute value is supplied for them, e.g. the credentials of a test account.
+ * </p>
+ * <p>
+ * Besides the API, this class is the command line entry point of the replay tool. It ships with the library
+ * so a capture can be replayed with nothing but the Kyro jar on the class path:
+ * </p>
+ * <pre>{@code
+ * java -cp kyro.jar me.luxoru.kyro.capture.TrafficReplayer <log> <base-url>
+ *     [--speed <factor>|max] [--save <file>] [--baseline <file>] [--header <name>=<value>]...
+ * }</pre>
+ *
+ * @author Luxoru
+ */
+public class TrafficReplayer {
+
+    private static final String USAGE = "Usage: TrafficReplayer <log> <base-url> [--speed <factor>|max] [--save <file>] "
+            + "[--baseline <file>] [--header <name>=<value>]...";
+
+    /**
+     * Headers the {@link HttpClient} sets itself and refuses to take from the request.
+     */
+    private static final Set<String> SKIPPED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        SKIPPED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade",
+                "HTTP2-Settings", "Transfer-Encoding", "Keep-Alive"));
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final double speed;
+    private final Map<String, String> substituteHeaders;
+
+    /**
+     * Constructs a new replayer leaving redacted headers out of the replayed requests.
+     *
+     * @param baseUri the scheme, host and port of the Kyro instance, e.g. {@code http://localhost:8080}
+     * @param speed how many times faster than recorded the requests are sent, {@link Double#POSITIVE_INFINITY}
+     * to send them all at once
+     */
+    public TrafficReplayer(URI baseUri, double speed) {
+        this(baseUri, speed, Map.of());
+    }
+
+    /**
+     * Constructs a new replayer.
+     *
+     * @param baseUri the scheme, host and port of the Kyro instance, e.g. {@code http://localhost:8080}
+     * @param speed how many times faster than recorded the requests are sent, {@link Double#POSITIVE_INFINITY}
+     * to send them all at once
+     * @param substituteHeaders the values sent for redacted headers by header name, redacted headers without
+     * a substitute are left out
+     */
+    public TrafficReplayer(URI baseUri, double speed, Map<String, String> substituteHeaders) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive");
+        }
+        // HttpServer only speaks HTTP/1.1, skip the upgrade attempt on every connection
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.baseUri = baseUri;
+        this.speed = speed;
+        this.substituteHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.substituteHeaders.putAll(substituteHeaders);
+    }
+
+    /**
+     * Replays the requests and waits for every response.
+     * <p>
+     * Requests are sent in the order they arrived at while recording. That is not necessarily the order of
+     * the log, which holds requests in the order they completed.
+     * </p>
+     *
+     * @param requests the requests to replay, in the order of the capture log
+     * @return the outcome of every request, in the same order as the requests
+     * @throws InterruptedException if interrupted while replaying
+     */
+    public ReplayResult replay(List<CapturedRequest> requests) throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        Future<ReplayResult.Sample>[] futures = new Future[requests.size()];
+        Integer[] arrivalOrder = new Integer[requests.size()];
+        Arrays.setAll(arrivalOrder, i -> i);
+        Arrays.sort(arrivalOrder, Comparator.comparingLong(i -> requests.get(i).offsetNanos()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long startedNanos = System.nanoTime();
+            long firstOffset = requests.isEmpty() ? 0 : requests.get(arrivalOrder[0]).offsetNanos();
+
+            for (int index : arrivalOrder) {
+                CapturedRequest request = requests.get(index);
+                if (speed != Double.POSITIVE_INFINITY) {
+                    long due = startedNanos + (long) ((request.offsetNanos() - firstOffset) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
+                        }
+                    }
+                }
+                futures[index] = executor.submit(() -> send(request));
+            }
+        }
+
+        List<ReplayResult.Sample> samples = new ArrayList<>(futures.length);
+        for (Future<ReplayResult.Sample> future : futures) {
+            try {
+                samples.add(future.get());
+            } catch (ExecutionException ex) {
+                samples.add(new ReplayResult.Sample(-1, 0, 0));
+            }
+        }
+        return new ReplayResult(samples);
+    }
+
+    private ReplayResult.Sample send(CapturedRequest captured) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(captured.uri()))
+                .method(captured.method(), captured.body().length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(captured.body()));
+
+        for (Map.Entry<String, String> header : captured.headers()) {
+            if (!SKIPPED_HEADERS.contains(header.getKey())) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        // A repeated header has been redacted once per occurrence, its substitute is sent once
+        for (String name : new LinkedHashSet<>(captured.redactedHeaders())) {
+            String substitute = substituteHeaders.get(name);
+            if (substitute != null) {
+                builder.header(name, substitute);
+            }
+        }
+
+        long startedNanos = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long latencyNanos = System.nanoTime() - startedNanos;
+
+            HashingOutputStream hash = new HashingOutputStream(OutputStream.nullOutputStream());
+            hash.write(response.body());
+            return new ReplayResult.Sample(response.statusCode(), latencyNanos, hash.getHash());
+        } catch (IOException | IllegalArgumentException ex) {
+            return new ReplayResult.Sample(-1, System.nanoTime() - startedNanos, 0);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new ReplayResult.Sample(-1, System.nanoTime() - startedNanos, 0);
+        }
+    }
+
+    /**
+     * Replays a capture log from the command line and prints how it compares to a baseline.
+     * <p>
+     * Without {@code --baseline}, the replay is compared with the outcomes recorded in the log itself.
+     * {@code --header} may be repeated and supplies the value sent for a redacted header.
+     * </p>
+     *
+     * @param args the arguments, see the class documentation
+     * @throws Exception if the log cannot be read or replayed
+     */
+    public static void main(String[] args) throws Exception {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        List<CapturedRequest> requests = TrafficLog.read(arguments.logFile());
+        System.out.printf("Replaying %d requests from %s against %s%n", requests.size(), arguments.logFile(), arguments.baseUri());
+
+        ReplayResult result = new TrafficReplayer(arguments.baseUri(), arguments.speed(), arguments.substituteHeaders())
+                .replay(requests);
+        if (arguments.saveFile() != null) {
+            result.save(arguments.saveFile());
+        }
+
+        ReplayResult baseline = arguments.baselineFile() != null
+                ? ReplayResult.load(arguments.baselineFile())
+                : ReplayResult.fromCapture(requests);
+        System.out.print(result.compare(baseline));
+    }
+
+    /**
+     * The command line arguments of the replay tool.
+     *
+     * @param logFile the capture log to replay
+     * @param baseUri the Kyro instance to replay against
+     * @param speed how many times faster than recorded the requests are sent
+     * @param saveFile the file the result is saved to, or {@code null}
+     * @param baselineFile the result to compare with, or {@code null} to compare with the capture
+     * @param substituteHeaders the values sent for redacted headers by header name
+     */
+    record Arguments(Path logFile, URI baseUri, double speed, Path saveFile, Path baselineFile,
+                     Map<String, String> substituteHeaders) {
+
+        /**
+         * Parses the command line arguments.
+         *
+         * @param args the arguments, see the class documentation
+         * @return the parsed arguments
+         * @throws IllegalArgumentException if the arguments are malformed
+         */
+        static Arguments parse(String[] args) {
+            if (args.length < 2) {
+                throw new IllegalArgumentException("Expected a capture log and a base URL");
+            }
+
+            Path logFile = Path.of(args[0]);
+            URI baseUri = URI.create(args[1]);
+            double speed = 1;
+            Path saveFile = null;
+            Path baselineFile = null;
+            Map<String, String> substituteHeaders = new HashMap<>();
+
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value after %s".formatted(args[i]));
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--speed" -> {
+                        try {
+                            speed = value.equals("max") ? Double.POSITIVE_INFINITY : Double.parseDouble(value);
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalArgumentException("Expected a number or max after --speed, got %s".formatted(value));
+                        }
+                    }
+                    case "--save" -> saveFile = Path.of(value);
+                    case "--baseline" -> baselineFile = Path.of(value);
+                    case "--header" -> {
+                        int separator = value.indexOf('=');
+                        if (separator <= 0) {
+                            throw new IllegalArgumentException("Expected <name>=<value> after --header, got %s".formatted(value));
+                        }
+                        substituteHeaders.put(value.substring(0, separator), value.substring(separator + 1));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option %s".formatted(args[i]));
+                }
+            }
+            return new Arguments(logFile, baseUri, speed, saveFile, baselineFile, substituteHeaders);
+        }
+
+    }
+
+}
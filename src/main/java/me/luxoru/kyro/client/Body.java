@@ -0,0 +1,20 @@
+package me.luxoru.kyro.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends a parameter of a client method as the request body.
+ * <p>
+ * {@code byte[]} arguments are sent as they are, anything else is serialized to JSON with the Gson instance
+ * of the {@link KyroClient}. A method has at most one body parameter.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Body {
+}
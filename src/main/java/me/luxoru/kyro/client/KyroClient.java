@@ -0,0 +1,303 @@
+package me.luxoru.kyro.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.luxoru.kyro.request.Route;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Calls Kyro routes through typed proxies of interfaces annotated like the routes themselves.
+ * <p>
+ * The interface is annotated with {@link Route} and its methods with
+ * {@link me.luxoru.kyro.request.RestPath}, so a route and its client can share the same paths. Arguments are
+ * sent as query parameters ({@link Param}) or as the request body ({@link Body}), and the {@code value} of the
+ * response envelope is decoded straight from the response stream into the return type of the method.
+ * Methods returning a {@link CompletableFuture} are asynchronous, every other method blocks until the
+ * response is decoded.
+ * </p>
+ * <pre>{@code
+ * @Route(path = "/v1")
+ * public interface UserClient {
+ *     @RestPath(path = "/user", method = RequestMethod.GET)
+ *     CompletableFuture<User> getUser(@Param("name") String name);
+ * }
+ *
+ * UserClient users = new KyroClient.KyroClientBuilder(URI.create("http://users:8080")).build().create(UserClient.class);
+ * }</pre>
+ *
+ * @author Luxoru
+ */
+public class KyroClient {
+
+    private static final Gson DEFAULT_GSON = new GsonBuilder()
+            .serializeNulls()
+            .disableHtmlEscaping()
+            .create();
+
+    /**
+     * Runs the blocking part of asynchronous calls: decoding the response stream.
+     */
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kyro-client-", 0).factory());
+
+    private final URI baseUri;
+    private final Gson gson;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final boolean coalescing;
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private KyroClient(KyroClientBuilder builder) {
+        this.baseUri = builder.baseUri;
+        this.gson = builder.gson;
+        this.httpClient = builder.httpClient != null ? builder.httpClient : SharedHttpClient.INSTANCE;
+        this.timeout = builder.timeout;
+        this.coalescing = builder.coalescing;
+    }
+
+    /**
+     * Creates a proxy calling the routes described by an interface.
+     *
+     * @param routeInterface the interface annotated with {@link Route}
+     * @param <T> the type of the interface
+     * @return the proxy
+     * @throws IllegalStateException if the interface is not a valid route interface
+     */
+    public <T> T create(Class<T> routeInterface) {
+        if (!routeInterface.isInterface()) {
+            throw new IllegalStateException("%s is not an interface".formatted(routeInterface.getSimpleName()));
+        }
+        if (!routeInterface.isAnnotationPresent(Route.class)) {
+            throw new IllegalStateException("Route %s is not annotated with @Route".formatted(routeInterface.getSimpleName()));
+        }
+
+        Object proxy = Proxy.newProxyInstance(routeInterface.getClassLoader(), new Class<?>[]{routeInterface},
+                new RouteInvocationHandler(this, routeInterface));
+        return routeInterface.cast(proxy);
+    }
+
+    URI getBaseUri() {
+        return baseUri;
+    }
+
+    Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Sends a request and decodes the {@code value} of its envelope.
+     *
+     * @param request the request to send, without timeout
+     * @param valueType the type to decode the value into, {@code void} to skip it
+     * @param coalesce whether the request may share the response of an identical request in flight
+     * @return the future completed with the decoded value
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> send(HttpRequest.Builder request, Type valueType, boolean coalesce) {
+        if (timeout != null) {
+            request.timeout(timeout);
+        }
+        HttpRequest httpRequest = request.build();
+
+        if (!coalesce || !coalescing) {
+            return sendNow(httpRequest, valueType);
+        }
+
+        String key = httpRequest.method() + " " + httpRequest.uri() + " " + valueType.getTypeName();
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing;
+        }
+
+        this.<T>sendNow(httpRequest, valueType).whenComplete((value, throwable) -> {
+            inFlight.remove(key, flight);
+            if (throwable != null) {
+                flight.completeExceptionally(throwable);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    private <T> CompletableFuture<T> sendNow(HttpRequest request, Type valueType) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .exceptionally(throwable -> {
+                    throw new KyroClientException(-1, "Failed to call %s %s".formatted(request.method(), request.uri()),
+                            throwable.getCause() != null ? throwable.getCause() : throwable);
+                })
+                .thenApplyAsync(response -> decode(response, valueType), DECODE_EXECUTOR);
+    }
+
+    /**
+     * Decodes a response envelope from the response stream, without building an intermediate JSON tree.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T decode(HttpResponse<InputStream> response, Type valueType) {
+        int responseCode = response.statusCode();
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new KyroClientException(responseCode, "Response of %s is not a Kyro envelope".formatted(response.uri()), null);
+            }
+
+            Boolean success = null;
+            String error = null;
+            T value = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "success" -> success = reader.nextBoolean();
+                    case "error" -> error = reader.peek() == JsonToken.NULL ? nullValue(reader) : reader.nextString();
+                    case "value" -> {
+                        if (valueType == void.class || valueType == Void.class) {
+                            reader.skipValue();
+                        } else {
+                            TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(valueType));
+                            value = (T) adapter.read(reader);
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (success == null) {
+                throw new KyroClientException(responseCode, "Response of %s is not a Kyro envelope".formatted(response.uri()), null);
+            }
+            if (!success) {
+                throw new KyroClientException(responseCode, error != null ? error : "Call failed with response code %d".formatted(responseCode), null);
+            }
+            return value;
+        } catch (IOException | RuntimeException ex) {
+            if (ex instanceof KyroClientException clientException) {
+                throw clientException;
+            }
+            throw new KyroClientException(responseCode, "Failed to decode response of %s".formatted(response.uri()), ex);
+        }
+    }
+
+    private static String nullValue(JsonReader reader) throws IOException {
+        reader.nextNull();
+        return null;
+    }
+
+    /**
+     * The {@link HttpClient} shared by every client without one of its own, so connections to the same
+     * server are kept alive and reused across clients.
+     */
+    private static final class SharedHttpClient {
+
+        // Kyro only speaks HTTP/1.1, skip the upgrade attempt on every new connection
+        private static final HttpClient INSTANCE = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kyro-client-io-", 0).factory()))
+                .build();
+
+    }
+
+    /**
+     * Builder class for constructing {@link KyroClient} instances.
+     */
+    public static class KyroClientBuilder {
+
+        private final URI baseUri;
+        private Gson gson = DEFAULT_GSON;
+        private HttpClient httpClient;
+        private Duration timeout;
+        private boolean coalescing;
+
+        /**
+         * Constructs a new KyroClientBuilder for the given server.
+         *
+         * @param baseUri the scheme, host and port of the server (e.g., "http://localhost:8080")
+         */
+        public KyroClientBuilder(URI baseUri) {
+            this.baseUri = baseUri;
+        }
+
+        /**
+         * Sets the Gson instance for JSON serialization/deserialization.
+         *
+         * @param gson the Gson instance to use, it should match the one of the server
+         * @return this builder instance
+         */
+        public KyroClientBuilder setGson(Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP client requests are sent with.
+         *
+         * @param httpClient the client to use, or {@code null} to use the client shared by all Kyro clients
+         * @return this builder instance
+         */
+        public KyroClientBuilder setHttpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Sets the time a call waits for its response.
+         *
+         * @param timeout the timeout, or {@code null} to wait indefinitely (the default)
+         * @return this builder instance
+         */
+        public KyroClientBuilder setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets whether concurrent identical GET calls share a single request.
+         * <p>
+         * A call made while an identical call (same path, parameters and return type) is in flight receives
+         * the result of that call instead of sending its own request, mirroring
+         * {@link me.luxoru.kyro.request.RestPath#singleFlight()} on the server. Coalesced callers receive the
+         * same decoded instance, so it should not be modified.
+         * </p>
+         *
+         * @param coalescing whether to coalesce calls, defaults to {@code false}
+         * @return this builder instance
+         */
+        public KyroClientBuilder setCoalescing(boolean coalescing) {
+            this.coalescing = coalescing;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new {@link KyroClient} instance with the configured settings.
+         *
+         * @return a new KyroClient instance
+         */
+        public KyroClient build() {
+            return new KyroClient(this);
+        }
+
+    }
+
+}
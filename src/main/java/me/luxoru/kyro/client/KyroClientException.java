@@ -0,0 +1,36 @@
+package me.luxoru.kyro.client;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a call made through a {@link KyroClient} fails.
+ * <p>
+ * This is the case when the request cannot be sent, when the response is not a Kyro envelope, or when the
+ * envelope reports {@code "success": false}, in which case the message is the error sent by the route.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Getter
+public class KyroClientException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The response code of the failed call, or {@code -1} if no response was received.
+     */
+    private final int responseCode;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param responseCode the response code, or {@code -1} if no response was received
+     * @param message the detail message
+     * @param cause the cause, may be {@code null}
+     */
+    public KyroClientException(int responseCode, String message, Throwable cause) {
+        super(message, cause);
+        this.responseCode = responseCode;
+    }
+
+}
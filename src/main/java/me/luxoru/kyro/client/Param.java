@@ -0,0 +1,28 @@
+package me.luxoru.kyro.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends a parameter of a client method as a query parameter, which the route reads with
+ * {@link me.luxoru.kyro.request.Request#getParameter(String)}.
+ * <p>
+ * {@code null} arguments are left out of the query.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Param {
+
+    /**
+     * Specifies the name of the query parameter.
+     *
+     * @return the name of the parameter
+     */
+    String value();
+
+}
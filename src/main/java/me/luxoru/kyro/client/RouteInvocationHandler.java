@@ -0,0 +1,177 @@
+package me.luxoru.kyro.client;
+
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Turns calls on a route interface proxy into requests.
+ * <p>
+ * Every method is inspected once, when the proxy is created, so a call only formats its arguments.
+ * </p>
+ *
+ * @author Luxoru
+ */
+class RouteInvocationHandler implements InvocationHandler {
+
+    private final KyroClient client;
+    private final Class<?> routeInterface;
+    private final Map<Method, RouteCall> calls = new HashMap<>();
+
+    RouteInvocationHandler(KyroClient client, Class<?> routeInterface) {
+        this.client = client;
+        this.routeInterface = routeInterface;
+
+        String routePath = routeInterface.getAnnotation(Route.class).path();
+
+        for (Method method : routeInterface.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (!method.isAnnotationPresent(RestPath.class)) {
+                throw new IllegalStateException("Method %s of %s is not annotated with @RestPath"
+                        .formatted(method.getName(), routeInterface.getSimpleName()));
+            }
+            calls.put(method, createCall(routePath, method));
+        }
+    }
+
+    private RouteCall createCall(String routePath, Method method) {
+        RestPath restPath = method.getAnnotation(RestPath.class);
+        Annotation[][] annotations = method.getParameterAnnotations();
+        String[] parameterNames = new String[annotations.length];
+        int bodyIndex = -1;
+
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Param param) {
+                    parameterNames[i] = param.value();
+                } else if (annotation instanceof Body) {
+                    if (bodyIndex != -1) {
+                        throw new IllegalStateException("Method %s of %s has more than one @Body parameter"
+                                .formatted(method.getName(), routeInterface.getSimpleName()));
+                    }
+                    bodyIndex = i;
+                }
+            }
+            if (parameterNames[i] == null && bodyIndex != i) {
+                throw new IllegalStateException("Parameter %d of method %s of %s is not annotated with @Param or @Body"
+                        .formatted(i, method.getName(), routeInterface.getSimpleName()));
+            }
+        }
+
+        boolean async = method.getReturnType() == CompletableFuture.class;
+        Type valueType = method.getGenericReturnType();
+        if (async) {
+            valueType = valueType instanceof ParameterizedType parameterized
+                    ? parameterized.getActualTypeArguments()[0]
+                    : Object.class;
+        }
+
+        return new RouteCall(restPath.method(), routePath + restPath.path(), parameterNames, bodyIndex, valueType, async);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "KyroClient[%s @ %s]".formatted(routeInterface.getSimpleName(), client.getBaseUri());
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+
+        RouteCall call = calls.get(method);
+        CompletableFuture<Object> future = client.send(call.createRequest(client, args), call.valueType(),
+                call.method() == RequestMethod.GET && call.bodyIndex() == -1);
+
+        if (call.async()) {
+            return future;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() != null ? ex.getCause() : ex;
+        }
+    }
+
+    /**
+     * A method of the route interface, resolved to what it sends.
+     *
+     * @param method the request method
+     * @param path the full path of the route
+     * @param parameterNames the query parameter name of each argument, {@code null} for the body
+     * @param bodyIndex the index of the body argument, or {@code -1} if there is none
+     * @param valueType the type the value of the envelope is decoded into
+     * @param async whether the method returns a {@link CompletableFuture}
+     */
+    private record RouteCall(RequestMethod method, String path, String[] parameterNames, int bodyIndex,
+                             Type valueType, boolean async) {
+
+        HttpRequest.Builder createRequest(KyroClient client, Object[] args) {
+            StringBuilder uri = new StringBuilder(path);
+            char separator = '?';
+
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (i == bodyIndex || args[i] == null) {
+                    continue;
+                }
+                uri.append(separator)
+                        .append(encode(parameterNames[i]))
+                        .append('=')
+                        .append(encode(String.valueOf(args[i])));
+                separator = '&';
+            }
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(client.getBaseUri().resolve(URI.create(uri.toString())))
+                    .header("Accept", "application/json");
+
+            if (bodyIndex == -1 || args[bodyIndex] == null) {
+                return request.method(method.name(), HttpRequest.BodyPublishers.noBody());
+            }
+
+            Object body = args[bodyIndex];
+            if (body instanceof byte[] bytes) {
+                return request.header("Content-Type", "application/octet-stream")
+                        .method(method.name(), HttpRequest.BodyPublishers.ofByteArray(bytes));
+            }
+            return request.header("Content-Type", "application/json")
+                    .method(method.name(), HttpRequest.BodyPublishers.ofString(client.getGson().toJson(body), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Percent-encodes a query component.
+         * <p>
+         * {@link URLEncoder} produces form encoding, where a space becomes {@code +}. The server only decodes
+         * percent escapes and keeps a {@code +} as is, so spaces are sent as {@code %20}.
+         * </p>
+         *
+         * @param value the component to encode
+         * @return the encoded component
+         */
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+        }
+
+    }
+
+}
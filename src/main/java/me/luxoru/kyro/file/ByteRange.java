@@ -0,0 +1,77 @@
+package me.luxoru.kyro.file;
+
+/**
+ * An inclusive range of bytes requested through a {@code Range} header.
+ *
+ * @param start the first byte of the range
+ * @param end the last byte of the range, inclusive
+ *
+ * @author Luxoru
+ */
+public record ByteRange(long start, long end) {
+
+    /**
+     * Returned by {@link #parse(String, long)} when the requested range lies outside of the file.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    /**
+     * Gets the number of bytes in this range.
+     *
+     * @return the length of the range
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Parses a {@code Range} header against a file of the given size.
+     * <p>
+     * Only single {@code bytes} ranges are supported, in the forms {@code bytes=0-99},
+     * {@code bytes=100-} and {@code bytes=-100}. Headers that are malformed or request multiple
+     * ranges are ignored, in which case the whole file should be sent.
+     * </p>
+     *
+     * @param header the value of the {@code Range} header, may be {@code null}
+     * @param size the size of the file
+     * @return the requested range, {@link #UNSATISFIABLE} if it cannot be served, or {@code null} to send the whole file
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+}
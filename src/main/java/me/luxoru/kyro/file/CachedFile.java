@@ -0,0 +1,71 @@
+package me.luxoru.kyro.file;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An open file held by a {@link FileCache}, together with the metadata needed to serve it.
+ * <p>
+ * The channel is shared between all requests serving the file and is only read through positional
+ * transfers, so it can be used concurrently. Instances are reference counted: every
+ * {@link FileCache#acquire(Path)} must be paired with a {@link #close()}, and the channel is only
+ * closed once the file has been evicted and the last request using it has finished.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Getter
+@Slf4j(topic = "Kyro")
+public class CachedFile implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final Instant lastModified;
+    private final String contentType;
+    private final String entityTag;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger references = new AtomicInteger(1);
+    @Getter(AccessLevel.NONE)
+    volatile long validatedAt;
+
+    CachedFile(Path path, FileChannel channel, long size, Instant lastModified, String contentType) {
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+        this.entityTag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+        this.validatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Registers another user of this file.
+     */
+    void retain() {
+        references.incrementAndGet();
+    }
+
+    /**
+     * Releases this file, closing the channel if it is no longer cached or in use.
+     */
+    @Override
+    public void close() {
+        if (references.decrementAndGet() == 0) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("Failed closing cached file {}", path, ex);
+            }
+        }
+    }
+
+}
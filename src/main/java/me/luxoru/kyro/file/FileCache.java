@@ -0,0 +1,157 @@
+package me.luxoru.kyro.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of open files and their metadata.
+ * <p>
+ * Keeping channels open avoids an open, stat and close per request for frequently served files.
+ * The cache holds at most {@code maxEntries} files and evicts the least recently used one when full.
+ * Cached metadata is revalidated against the file system at most once per {@code revalidateMillis},
+ * so a replaced file is picked up without a stat on every request.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class FileCache implements AutoCloseable {
+
+    private final int maxEntries;
+    private final long revalidateMillis;
+    private final LinkedHashMap<Path, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructs a new file cache.
+     *
+     * @param maxEntries the maximum number of open files to keep
+     * @param revalidateMillis the interval after which cached metadata is checked against the file system
+     */
+    public FileCache(int maxEntries, long revalidateMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.revalidateMillis = revalidateMillis;
+    }
+
+    /**
+     * Acquires the given file, opening and caching it if necessary.
+     * <p>
+     * The returned file must be {@link CachedFile#close() closed} once the caller is done with it. Files are
+     * opened and revalidated outside of the cache's lock, so a slow disk only delays the requests for that
+     * file. If two requests open the same file at once, the first to finish is cached and used by both.
+     * </p>
+     *
+     * @param path the file to acquire
+     * @return the cached file
+     * @throws NoSuchFileException if the path does not exist or is not a regular file
+     * @throws IOException if the file cannot be opened
+     */
+    public CachedFile acquire(Path path) throws IOException {
+        CachedFile cached;
+        synchronized (this) {
+            cached = files.get(path);
+            if (cached != null && System.currentTimeMillis() - cached.validatedAt < revalidateMillis) {
+                cached.retain();
+                return cached;
+            }
+        }
+
+        if (cached != null) {
+            BasicFileAttributes attributes = readAttributes(path);
+
+            if (attributes != null
+                    && attributes.size() == cached.getSize()
+                    && attributes.lastModifiedTime().toInstant().equals(cached.getLastModified())) {
+                cached.validatedAt = System.currentTimeMillis();
+                synchronized (this) {
+                    if (files.get(path) == cached) {
+                        cached.retain();
+                        return cached;
+                    }
+                }
+            } else {
+                evict(path, cached);
+            }
+        }
+
+        CachedFile opened = open(path);
+        synchronized (this) {
+            CachedFile published = files.get(path);
+            if (published != null) {
+                // Another request opened the file first
+                opened.close();
+                published.retain();
+                return published;
+            }
+
+            files.put(path, opened);
+
+            if (files.size() > maxEntries) {
+                Iterator<Map.Entry<Path, CachedFile>> eldest = files.entrySet().iterator();
+                eldest.next().getValue().close();
+                eldest.remove();
+            }
+
+            opened.retain();
+            return opened;
+        }
+    }
+
+    private synchronized void evict(Path path, CachedFile file) {
+        if (files.remove(path, file)) {
+            file.close();
+        }
+    }
+
+    /**
+     * Gets the number of files currently held open.
+     *
+     * @return the count of cached files
+     */
+    public synchronized int size() {
+        return files.size();
+    }
+
+    /**
+     * Evicts every cached file. Files still being served are closed once their requests finish.
+     */
+    @Override
+    public synchronized void close() {
+        for (CachedFile file : files.values()) {
+            file.close();
+        }
+        files.clear();
+    }
+
+    private static CachedFile open(Path path) throws IOException {
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+
+        String contentType = Files.probeContentType(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        return new CachedFile(path, channel, attributes.size(), attributes.lastModifiedTime().toInstant(),
+                contentType != null ? contentType : "application/octet-stream");
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package me.luxoru.kyro.file;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import lombok.extern.slf4j.Slf4j;
+import me.luxoru.kyro.response.ResponseCode;
+import me.luxoru.kyro.util.HTTPUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Streams files from a {@link FileCache} to HTTP clients.
+ * <p>
+ * File content is moved with {@link FileChannel#transferTo(long, long, WritableByteChannel)} straight
+ * into the exchange's response stream, so only the transfer's own bounded buffer is ever involved
+ * and a file is never copied into the heap as a whole. Single byte ranges and conditional requests
+ * are supported, and {@code HEAD} requests are answered with the headers of the file alone.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Slf4j(topic = "Kyro")
+public class FileSender {
+
+    private final FileCache fileCache;
+
+    /**
+     * Constructs a new file sender.
+     *
+     * @param fileCache the cache files are acquired from
+     */
+    public FileSender(FileCache fileCache) {
+        this.fileCache = fileCache;
+    }
+
+    /**
+     * Sends a file as the response to the given exchange.
+     * <p>
+     * Responds with {@link ResponseCode#NOT_FOUND} if the file does not exist.
+     * </p>
+     *
+     * @param exchange the exchange to respond to
+     * @param path the file to send
+     * @param headers additional headers to send, may be {@code null}
+     * @param contentType the content type to send, or {@code null} to use the probed content type
+     * @param downloadName the file name offered as an attachment, or {@code null} to display inline
+     * @throws IOException if an I/O error occurs while sending the file
+     */
+    public void send(HttpExchange exchange, Path path, Headers headers, String contentType, String downloadName) throws IOException {
+        CachedFile file;
+        try {
+            file = fileCache.acquire(path);
+        } catch (NoSuchFileException ex) {
+            exchange.sendResponseHeaders(ResponseCode.NOT_FOUND.getCode(), -1);
+            exchange.close();
+            return;
+        }
+
+        try (file) {
+            Headers requestHeaders = exchange.getRequestHeaders();
+            Headers responseHeaders = exchange.getResponseHeaders();
+
+            responseHeaders.set("Content-Type", contentType != null ? contentType : file.getContentType());
+            responseHeaders.set("Accept-Ranges", "bytes");
+            responseHeaders.set("ETag", file.getEntityTag());
+            responseHeaders.set("Last-Modified", HTTPUtils.formatDate(file.getLastModified()));
+            if (downloadName != null) {
+                responseHeaders.set("Content-Disposition", "attachment; filename=\"" + downloadName.replace("\"", "") + "\"");
+            }
+            if (headers != null) {
+                responseHeaders.putAll(headers);
+            }
+
+            if (isNotModified(requestHeaders, file)) {
+                exchange.sendResponseHeaders(ResponseCode.NOT_MODIFIED.getCode(), -1);
+                exchange.close();
+                return;
+            }
+
+            ByteRange range = null;
+            String ifRange = requestHeaders.getFirst("If-Range");
+            if (ifRange == null || ifRange.equals(file.getEntityTag())) {
+                range = ByteRange.parse(requestHeaders.getFirst("Range"), file.getSize());
+            }
+
+            if (range == ByteRange.UNSATISFIABLE) {
+                responseHeaders.set("Content-Range", "bytes */" + file.getSize());
+                exchange.sendResponseHeaders(ResponseCode.RANGE_NOT_SATISFIABLE.getCode(), -1);
+                exchange.close();
+                return;
+            }
+
+            long start = 0;
+            long length = file.getSize();
+            ResponseCode responseCode = ResponseCode.OK;
+
+            if (range != null) {
+                start = range.start();
+                length = range.length();
+                responseCode = ResponseCode.PARTIAL_CONTENT;
+                responseHeaders.set("Content-Range", "bytes %d-%d/%d".formatted(range.start(), range.end(), file.getSize()));
+            }
+
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                responseHeaders.set("Content-Length", Long.toString(length));
+                exchange.sendResponseHeaders(responseCode.getCode(), -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(responseCode.getCode(), length == 0 ? -1 : length);
+
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                transfer(file.getChannel(), start, length, Channels.newChannel(responseBody));
+            } catch (IOException ex) {
+                log.debug("Client aborted transfer of {}", path, ex);
+            }
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                // The file has been truncated since it was cached
+                throw new IOException("Unexpected end of file");
+            }
+            position += transferred;
+        }
+    }
+
+    private static boolean isNotModified(Headers requestHeaders, CachedFile file) {
+        String ifNoneMatch = requestHeaders.getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            return HTTPUtils.matchesEntityTag(ifNoneMatch, file.getEntityTag());
+        }
+
+        Instant modifiedSince = HTTPUtils.parseDate(requestHeaders.getFirst("If-Modified-Since"));
+        return modifiedSince != null
+                && !file.getLastModified().truncatedTo(ChronoUnit.SECONDS).isAfter(modifiedSince);
+    }
+
+}
@@ -0,0 +1,44 @@
+package me.luxoru.kyro.flight;
+
+import me.luxoru.kyro.request.Request;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Default {@link FlightKeyExtractor} used by single-flight routes.
+ * <p>
+ * The key is built from the request method, the request path and the parameters sorted by name,
+ * so {@code ?a=1&b=2} and {@code ?b=2&a=1} coalesce. The {@code Authorization} and {@code Cookie}
+ * headers are part of the key as well, which keeps responses from being shared between callers.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class DefaultFlightKeyExtractor implements FlightKeyExtractor {
+
+    private static final String[] CREDENTIAL_HEADERS = {"Authorization", "Cookie"};
+
+    @Override
+    public String extract(Request request) {
+        StringBuilder key = new StringBuilder()
+                .append(request.getMethod())
+                .append(' ')
+                .append(request.getURI().getPath());
+
+        for (Map.Entry<String, String> entry : new TreeMap<>(request.getParameters()).entrySet()) {
+            key.append('&').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+
+        for (String header : CREDENTIAL_HEADERS) {
+            List<String> values = request.getHeaders(header);
+            if (values != null) {
+                key.append('\n').append(header).append(':').append(String.join(",", values));
+            }
+        }
+
+        return key.toString();
+    }
+
+}
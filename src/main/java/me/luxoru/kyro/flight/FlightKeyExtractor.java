@@ -0,0 +1,30 @@
+package me.luxoru.kyro.flight;
+
+import me.luxoru.kyro.request.Request;
+
+/**
+ * Extracts the key used to coalesce concurrent requests on a single-flight route.
+ * <p>
+ * Requests that produce the same key while a handler call is in progress share that
+ * call and its encoded response. Implementations must therefore include everything
+ * that can change the response, in particular anything identifying the caller when
+ * the route returns per-user data.
+ * </p>
+ * <p>
+ * Implementations are instantiated reflectively and must declare a public no-argument constructor.
+ * </p>
+ *
+ * @see me.luxoru.kyro.request.RestPath#flightKey()
+ * @author Luxoru
+ */
+public interface FlightKeyExtractor {
+
+    /**
+     * Extracts the coalescing key for the given request.
+     *
+     * @param request the incoming request
+     * @return the key to coalesce on, or {@code null} if this request must not be shared
+     */
+    String extract(Request request);
+
+}
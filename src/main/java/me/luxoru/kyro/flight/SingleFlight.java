@@ -0,0 +1,89 @@
+package me.luxoru.kyro.flight;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent calls that share the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the supplied {@link Callable}; every caller arriving with the
+ * same key before it finishes waits for and receives the same result. Once the call completes the
+ * key is released, so results are never cached beyond the lifetime of the call itself.
+ * </p>
+ *
+ * @param <T> the type of result being shared
+ * @author Luxoru
+ */
+public class SingleFlight<T> {
+
+    private final Map<String, CompletableFuture<T>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the call for the given key, or joins the call already in flight for it.
+     *
+     * @param key the key identifying identical calls
+     * @param call the call to execute if no call for the key is in flight
+     * @return the result of the call
+     * @throws Exception if the shared call failed
+     */
+    public T execute(String key, Callable<T> call) throws Exception {
+        return execute(key, null, call);
+    }
+
+    /**
+     * Executes the call for the given key, or joins the call already in flight for it.
+     * <p>
+     * A caller joining a call in flight waits for at most the given time. Giving up does not affect the
+     * call itself, which still completes for the caller that started it and everyone else waiting.
+     * </p>
+     *
+     * @param key the key identifying identical calls
+     * @param timeout the longest time to wait for a call in flight, or {@code null} to wait until it completes
+     * @param call the call to execute if no call for the key is in flight
+     * @return the result of the call
+     * @throws TimeoutException if the call in flight did not complete within the timeout
+     * @throws Exception if the shared call failed
+     */
+    public T execute(String key, Duration timeout, Callable<T> call) throws Exception {
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = flights.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            try {
+                return timeout == null ? existing.get() : existing.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+
+        try {
+            T result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (Throwable throwable) {
+            flight.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Gets the number of calls currently in flight.
+     *
+     * @return the count of keys with a call in progress
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+}
@@ -0,0 +1,139 @@
+package me.luxoru.kyro.lane;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.luxoru.kyro.metrics.LaneMetrics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An isolated execution budget for a group of routes.
+ * <p>
+ * Each lane admits at most {@link LaneSettings#maxConcurrency()} running and
+ * {@link LaneSettings#queueCapacity()} waiting requests. Requests beyond that are handled according to the
+ * lane's {@link RejectionPolicy}, so a slow group of routes can exhaust its own lane but never the threads
+ * of another. Platform lanes run on a fixed pool of threads; virtual lanes start a virtual thread per request
+ * and limit concurrency with a semaphore.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Slf4j(topic = "Kyro")
+public class Lane {
+
+    @Getter
+    private final LaneSettings settings;
+    @Getter
+    private final LaneMetrics metrics;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    /**
+     * Constructs a new lane.
+     *
+     * @param settings the configuration of the lane
+     * @param metrics the metrics the lane reports its load to
+     */
+    public Lane(LaneSettings settings, LaneMetrics metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+
+        if (settings.virtualThreads()) {
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("kyro-lane-" + settings.name() + "-", 0).factory());
+            this.permits = new Semaphore(settings.maxConcurrency(), true);
+        } else {
+            // Admission is bounded below, so the pool's own queue never grows past the lane's capacity
+            this.executor = new ThreadPoolExecutor(settings.maxConcurrency(), settings.maxConcurrency(),
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofPlatform().name("kyro-lane-" + settings.name() + "-", 0).factory());
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Gets the name of this lane.
+     *
+     * @return the name routes refer to the lane by
+     */
+    public String getName() {
+        return settings.name();
+    }
+
+    /**
+     * Submits a task to this lane.
+     * <p>
+     * If the lane is full the task is rejected, or run on the calling thread when the lane uses
+     * {@link RejectionPolicy#CALLER_RUNS}.
+     * </p>
+     *
+     * @param task the task to run
+     * @return {@code true} if the task was accepted, {@code false} if it was rejected
+     */
+    public boolean execute(Runnable task) {
+        if (admitted.incrementAndGet() > settings.maxConcurrency() + settings.queueCapacity()) {
+            admitted.decrementAndGet();
+
+            if (settings.rejectionPolicy() == RejectionPolicy.CALLER_RUNS) {
+                task.run();
+                return true;
+            }
+            metrics.recordRejected();
+            return false;
+        }
+
+        long queuedAt = System.nanoTime();
+        metrics.recordQueued();
+
+        try {
+            executor.execute(() -> run(task, queuedAt));
+        } catch (RuntimeException ex) {
+            admitted.decrementAndGet();
+            metrics.recordAbandoned();
+            metrics.recordRejected();
+            return false;
+        }
+        return true;
+    }
+
+    private void run(Runnable task, long queuedAt) {
+        boolean acquired = false;
+        try {
+            if (permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+            metrics.recordStarted(System.nanoTime() - queuedAt);
+            try {
+                task.run();
+            } finally {
+                metrics.recordCompleted();
+            }
+        } catch (InterruptedException ex) {
+            log.warn("Interrupted while waiting for a slot in lane {}", settings.name());
+            metrics.recordAbandoned();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            admitted.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting tasks and interrupts the tasks currently running.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
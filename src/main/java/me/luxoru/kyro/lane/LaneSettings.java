@@ -0,0 +1,63 @@
+package me.luxoru.kyro.lane;
+
+/**
+ * Configuration of a {@link Lane}.
+ *
+ * @param name the name routes refer to the lane by
+ * @param maxConcurrency the maximum number of requests handled at the same time
+ * @param queueCapacity the maximum number of requests waiting for a free slot
+ * @param virtualThreads whether requests run on virtual threads rather than a fixed pool of platform threads
+ * @param rejectionPolicy what happens to requests arriving while the lane and its queue are full
+ *
+ * @author Luxoru
+ */
+public record LaneSettings(String name, int maxConcurrency, int queueCapacity, boolean virtualThreads,
+                           RejectionPolicy rejectionPolicy) {
+
+    public LaneSettings {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Lane name must not be empty");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency of lane %s must be at least 1".formatted(name));
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity of lane %s must not be negative".formatted(name));
+        }
+    }
+
+    /**
+     * Creates settings for a lane backed by a fixed pool of platform threads.
+     *
+     * @param name the name routes refer to the lane by
+     * @param threads the number of threads, and therefore the maximum number of concurrent requests
+     * @param queueCapacity the maximum number of requests waiting for a free thread
+     * @return the new settings, rejecting requests when full
+     */
+    public static LaneSettings platform(String name, int threads, int queueCapacity) {
+        return new LaneSettings(name, threads, queueCapacity, false, RejectionPolicy.REJECT);
+    }
+
+    /**
+     * Creates settings for a lane running every request on its own virtual thread.
+     *
+     * @param name the name routes refer to the lane by
+     * @param maxConcurrency the maximum number of requests handled at the same time
+     * @param queueCapacity the maximum number of requests waiting for a free slot
+     * @return the new settings, rejecting requests when full
+     */
+    public static LaneSettings virtual(String name, int maxConcurrency, int queueCapacity) {
+        return new LaneSettings(name, maxConcurrency, queueCapacity, true, RejectionPolicy.REJECT);
+    }
+
+    /**
+     * Returns a copy of these settings with a different rejection policy.
+     *
+     * @param rejectionPolicy the policy to use
+     * @return the new settings
+     */
+    public LaneSettings withRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        return new LaneSettings(name, maxConcurrency, queueCapacity, virtualThreads, rejectionPolicy);
+    }
+
+}
@@ -0,0 +1,20 @@
+package me.luxoru.kyro.lane;
+
+/**
+ * Decides what happens to a request that arrives while its {@link Lane} is full.
+ *
+ * @author Luxoru
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Answer the request immediately with {@link me.luxoru.kyro.response.ResponseCode#SERVICE_UNAVAILABLE}.
+     */
+    REJECT,
+
+    /**
+     * Handle the request on the thread that dispatched it, trading isolation for never rejecting.
+     */
+    CALLER_RUNS
+
+}
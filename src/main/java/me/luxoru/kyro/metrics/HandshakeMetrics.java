@@ -0,0 +1,106 @@
+package me.luxoru.kyro.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the TLS handshakes performed by an HTTPS {@link me.luxoru.kyro.Kyro} instance.
+ * <p>
+ * A high share of {@link #getFullHandshakes() full handshakes} from returning clients means sessions are
+ * not being resumed, usually because the session cache is too small or its timeout too short.
+ * Handshake latency is measured from the first handshake record to the completion of the handshake and
+ * therefore includes the network round trips.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class HandshakeMetrics {
+
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+    private final LongAdder failedHandshakes = new LongAdder();
+    private final LongAdder fullHandshakeNanos = new LongAdder();
+    private final LongAdder resumedHandshakeNanos = new LongAdder();
+    private final LongAccumulator maxHandshakeNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a completed handshake.
+     *
+     * @param resumed whether an existing session was resumed
+     * @param nanos the duration of the handshake
+     */
+    public void recordHandshake(boolean resumed, long nanos) {
+        if (resumed) {
+            resumedHandshakes.increment();
+            resumedHandshakeNanos.add(nanos);
+        } else {
+            fullHandshakes.increment();
+            fullHandshakeNanos.add(nanos);
+        }
+        maxHandshakeNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records a handshake that failed before completing.
+     */
+    public void recordFailure() {
+        failedHandshakes.increment();
+    }
+
+    /**
+     * Gets the number of handshakes that created a new session.
+     *
+     * @return the full handshake count
+     */
+    public long getFullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    /**
+     * Gets the number of handshakes that resumed an existing session.
+     *
+     * @return the resumed handshake count
+     */
+    public long getResumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    /**
+     * Gets the number of handshakes that failed.
+     *
+     * @return the failed handshake count
+     */
+    public long getFailedHandshakes() {
+        return failedHandshakes.sum();
+    }
+
+    /**
+     * Gets the average duration of full handshakes.
+     *
+     * @return the average latency in milliseconds
+     */
+    public double getAverageFullHandshakeMillis() {
+        long count = fullHandshakes.sum();
+        return count == 0 ? 0 : fullHandshakeNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Gets the average duration of resumed handshakes.
+     *
+     * @return the average latency in milliseconds
+     */
+    public double getAverageResumedHandshakeMillis() {
+        long count = resumedHandshakes.sum();
+        return count == 0 ? 0 : resumedHandshakeNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Gets the duration of the slowest handshake.
+     *
+     * @return the maximum latency in milliseconds
+     */
+    public double getMaxHandshakeMillis() {
+        return maxHandshakeNanos.get() / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,86 @@
+package me.luxoru.kyro.metrics;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the metrics collected by a {@link me.luxoru.kyro.Kyro} instance.
+ *
+ * @author Luxoru
+ */
+public class KyroMetrics {
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, LaneMetrics> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * The TLS handshake metrics, only updated when Kyro serves HTTPS.
+     */
+    @Getter
+    private final HandshakeMetrics handshakes = new HandshakeMetrics();
+
+    /**
+     * Gets the metrics of a route, creating them if necessary.
+     *
+     * @param route the route, e.g. {@code GET /v1/user}
+     * @return the metrics of the route
+     */
+    public RouteMetrics route(String route) {
+        return routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    /**
+     * Gets the metrics of a route.
+     *
+     * @param route the route, e.g. {@code GET /v1/user}
+     * @return the metrics of the route, or {@code null} if no such route is registered
+     */
+    public RouteMetrics getRoute(String route) {
+        return routes.get(route);
+    }
+
+    /**
+     * Gets the metrics of all registered routes.
+     *
+     * @return an unmodifiable view of the route metrics
+     */
+    public Collection<RouteMetrics> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    /**
+     * Gets the metrics of a lane, creating them if necessary.
+     *
+     * @param lane the name of the lane
+     * @param maxConcurrency the maximum number of requests the lane handles at the same time
+     * @param queueCapacity the maximum number of requests waiting in the lane
+     * @return the metrics of the lane
+     */
+    public LaneMetrics lane(String lane, int maxConcurrency, int queueCapacity) {
+        return lanes.computeIfAbsent(lane, name -> new LaneMetrics(name, maxConcurrency, queueCapacity));
+    }
+
+    /**
+     * Gets the metrics of a lane.
+     *
+     * @param lane the name of the lane
+     * @return the metrics of the lane, or {@code null} if no such lane is configured
+     */
+    public LaneMetrics getLane(String lane) {
+        return lanes.get(lane);
+    }
+
+    /**
+     * Gets the metrics of all configured lanes.
+     *
+     * @return an unmodifiable view of the lane metrics
+     */
+    public Collection<LaneMetrics> getLanes() {
+        return Collections.unmodifiableCollection(lanes.values());
+    }
+
+}
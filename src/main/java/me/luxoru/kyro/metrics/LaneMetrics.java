@@ -0,0 +1,154 @@
+package me.luxoru.kyro.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and gauges describing the load on a {@link me.luxoru.kyro.lane.Lane}.
+ * <p>
+ * {@link #getSaturation()} close to {@code 1} together with a growing {@link #getQueued()} or
+ * {@link #getRejected()} means the lane needs more capacity, or that its routes are slower than expected.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class LaneMetrics {
+
+    /**
+     * The name of the lane these metrics belong to.
+     */
+    @Getter
+    private final String lane;
+
+    /**
+     * The maximum number of requests the lane handles at the same time.
+     */
+    @Getter
+    private final int maxConcurrency;
+
+    /**
+     * The maximum number of requests waiting in the lane.
+     */
+    @Getter
+    private final int queueCapacity;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    LaneMetrics(String lane, int maxConcurrency, int queueCapacity) {
+        this.lane = lane;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Records a request being admitted to the queue of the lane.
+     */
+    public void recordQueued() {
+        queued.incrementAndGet();
+    }
+
+    /**
+     * Records a queued request starting to run.
+     *
+     * @param waitNanos the time the request spent in the queue
+     */
+    public void recordStarted(long waitNanos) {
+        queued.decrementAndGet();
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        queueWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Records a queued request leaving the queue without running, e.g. because the lane shut down.
+     */
+    public void recordAbandoned() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * Records a running request finishing.
+     */
+    public void recordCompleted() {
+        active.decrementAndGet();
+        completed.increment();
+    }
+
+    /**
+     * Records a request being rejected because the lane was full.
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * Gets the number of requests currently running in the lane.
+     *
+     * @return the active count
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Gets the number of requests currently waiting for a free slot.
+     *
+     * @return the queued count
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Gets the highest number of requests that have run in the lane at the same time.
+     *
+     * @return the peak active count
+     */
+    public int getPeakActive() {
+        return peakActive.get();
+    }
+
+    /**
+     * Gets the number of requests the lane has finished.
+     *
+     * @return the completed count
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the number of requests rejected because the lane was full.
+     *
+     * @return the rejected count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the fraction of the concurrency limit currently in use.
+     *
+     * @return the saturation between {@code 0} and {@code 1}
+     */
+    public double getSaturation() {
+        return (double) active.get() / maxConcurrency;
+    }
+
+    /**
+     * Gets the average time requests spent waiting for a free slot.
+     *
+     * @return the average queue wait in milliseconds
+     */
+    public double getAverageQueueWaitMillis() {
+        long started = completed.sum() + active.get();
+        return started == 0 ? 0 : queueWaitNanos.sum() / 1_000_000.0 / started;
+    }
+
+}
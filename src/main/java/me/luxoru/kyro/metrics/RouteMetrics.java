@@ -0,0 +1,79 @@
+package me.luxoru.kyro.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the traffic handled by a single route.
+ * <p>
+ * Counters are updated concurrently by request threads and can be read at any time.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class RouteMetrics {
+
+    /**
+     * The route these metrics belong to, e.g. {@code GET /v1/user}.
+     */
+    @Getter
+    private final String route;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    /**
+     * Records a request reaching the route.
+     */
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    /**
+     * Records a request whose handler failed.
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Records a request whose handler did not finish before its deadline.
+     */
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Gets the number of requests that reached the route.
+     *
+     * @return the request count
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of requests whose handler failed.
+     *
+     * @return the error count
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets the number of requests whose handler did not finish before its deadline.
+     *
+     * @return the timeout count
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+}
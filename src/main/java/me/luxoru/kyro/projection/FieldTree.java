@@ -0,0 +1,216 @@
+package me.luxoru.kyro.projection;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A compiled selection of fields, e.g. from the {@code fields} query parameter.
+ * <p>
+ * Fields are separated by commas. Nested fields are selected with a dot, or with parentheses to select
+ * several fields of the same object: {@code name,address.city,orders(id,total)}. Selecting a field without
+ * nested fields selects its whole value. Selections on a collection apply to each of its elements.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public final class FieldTree {
+
+    /**
+     * The selection of a whole value.
+     */
+    public static final FieldTree ALL = new FieldTree(null);
+
+    private static final int MAX_LENGTH = 4096;
+    private static final int MAX_DEPTH = 32;
+
+    /**
+     * The selected fields by name, or {@code null} if the whole value is selected.
+     */
+    private final Map<String, FieldTree> children;
+
+    private FieldTree(Map<String, FieldTree> children) {
+        this.children = children;
+    }
+
+    /**
+     * Compiles a field selection.
+     *
+     * @param fields the selection, e.g. {@code name,address(city,zip)}
+     * @return the compiled selection
+     * @throws IllegalArgumentException if the selection is malformed
+     */
+    public static FieldTree parse(String fields) {
+        if (fields.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Field selection is longer than %d characters".formatted(MAX_LENGTH));
+        }
+        Parser parser = new Parser(fields);
+        Map<String, FieldTree> children = parser.parseList(0);
+        if (parser.position != fields.length()) {
+            throw parser.error("unexpected '%c'".formatted(fields.charAt(parser.position)));
+        }
+        return new FieldTree(Collections.unmodifiableMap(children));
+    }
+
+    /**
+     * Checks whether the whole value is selected.
+     *
+     * @return {@code true} if no nested fields are selected
+     */
+    public boolean isAll() {
+        return children == null;
+    }
+
+    /**
+     * Gets the selection of a field.
+     *
+     * @param name the name of the field
+     * @return the selection of the field, or {@code null} if the field is not selected
+     */
+    public FieldTree get(String name) {
+        return children == null ? ALL : children.get(name);
+    }
+
+    /**
+     * Gets the selected fields.
+     *
+     * @return the selections by field name, empty if the whole value is selected
+     */
+    public Map<String, FieldTree> getChildren() {
+        return children == null ? Map.of() : children;
+    }
+
+    /**
+     * Gets the fields selected by both this and another selection.
+     *
+     * @param other the other selection
+     * @return the common selection
+     */
+    public FieldTree intersect(FieldTree other) {
+        if (isAll()) {
+            return other;
+        }
+        if (other.isAll()) {
+            return this;
+        }
+        Map<String, FieldTree> common = new LinkedHashMap<>();
+        for (Map.Entry<String, FieldTree> entry : children.entrySet()) {
+            FieldTree otherChild = other.children.get(entry.getKey());
+            if (otherChild != null) {
+                common.put(entry.getKey(), entry.getValue().intersect(otherChild));
+            }
+        }
+        return new FieldTree(Collections.unmodifiableMap(common));
+    }
+
+    @Override
+    public String toString() {
+        if (children == null) {
+            return "*";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, FieldTree> entry : children.entrySet()) {
+            if (!builder.isEmpty()) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey());
+            if (!entry.getValue().isAll()) {
+                builder.append('(').append(entry.getValue()).append(')');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Adds a selection to a set of selected fields, a whole value winning over a selection of its fields.
+     */
+    private static void merge(Map<String, FieldTree> children, String name, FieldTree tree) {
+        FieldTree existing = children.get(name);
+        if (existing == null) {
+            children.put(name, tree);
+        } else if (!existing.isAll()) {
+            if (tree.isAll()) {
+                children.put(name, ALL);
+            } else {
+                Map<String, FieldTree> merged = new LinkedHashMap<>(existing.children);
+                tree.children.forEach((childName, child) -> merge(merged, childName, child));
+                children.put(name, new FieldTree(Collections.unmodifiableMap(merged)));
+            }
+        }
+    }
+
+    private static final class Parser {
+
+        private final String input;
+        private int position;
+
+        private Parser(String input) {
+            this.input = input;
+        }
+
+        private Map<String, FieldTree> parseList(int depth) {
+            Map<String, FieldTree> children = new LinkedHashMap<>();
+            do {
+                skipWhitespace();
+                String name = parseName();
+                merge(children, name, parseSelection(depth));
+                skipWhitespace();
+            } while (consume(','));
+            return children;
+        }
+
+        private FieldTree parseSelection(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error("fields are nested deeper than %d levels".formatted(MAX_DEPTH));
+            }
+            if (consume('.')) {
+                String name = parseName();
+                Map<String, FieldTree> children = new LinkedHashMap<>();
+                children.put(name, parseSelection(depth + 1));
+                return new FieldTree(Collections.unmodifiableMap(children));
+            }
+            if (consume('(')) {
+                Map<String, FieldTree> children = parseList(depth + 1);
+                if (!consume(')')) {
+                    throw error("missing ')'");
+                }
+                return new FieldTree(Collections.unmodifiableMap(children));
+            }
+            return ALL;
+        }
+
+        private String parseName() {
+            int start = position;
+            while (position < input.length() && isNameChar(input.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw error("expected a field name");
+            }
+            return input.substring(start, position);
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '-';
+        }
+
+        private boolean consume(char c) {
+            if (position < input.length() && input.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid field selection at position %d: %s".formatted(position, message));
+        }
+    }
+
+}
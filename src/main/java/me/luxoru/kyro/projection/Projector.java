@@ -0,0 +1,203 @@
+package me.luxoru.kyro.projection;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.internal.Excluder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes only the selected fields of a value.
+ * <p>
+ * Objects Gson would serialize field by field are walked with cached field accessors, and only selected
+ * fields are read, so unselected fields are neither read nor encoded. Only fields Gson itself would serialize
+ * can be selected, under the name Gson writes them with. Selected values without nested selections are
+ * serialized by Gson as usual, and values Gson has a dedicated adapter for are serialized whole and then
+ * trimmed to the selection.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class Projector {
+
+    private static final String REFLECTIVE_ADAPTER_PREFIX = "com.google.gson.internal.bind.ReflectiveTypeAdapterFactory";
+    private static final int MAX_CACHED_SELECTIONS = 1024;
+
+    private final Gson gson;
+    private final Map<Class<?>, List<BoundField>> classes = new ConcurrentHashMap<>();
+    private final Map<String, FieldTree> selections = new ConcurrentHashMap<>();
+
+    /**
+     * A field of a class, with the name Gson serializes it under.
+     */
+    private record BoundField(String name, Field field) {
+    }
+
+    /**
+     * Constructs a new projector.
+     *
+     * @param gson the Gson instance values are serialized with
+     */
+    public Projector(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Compiles a field selection, reusing the compiled selection of earlier identical calls.
+     *
+     * @param fields the selection, e.g. {@code name,address(city,zip)}
+     * @return the compiled selection
+     * @throws IllegalArgumentException if the selection is malformed
+     */
+    public FieldTree parse(String fields) {
+        FieldTree tree = selections.get(fields);
+        if (tree == null) {
+            tree = FieldTree.parse(fields);
+            // Selections come from clients, only keep a bounded number of them
+            if (selections.size() < MAX_CACHED_SELECTIONS) {
+                selections.put(fields, tree);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Serializes the selected fields of a value.
+     *
+     * @param value the value to serialize, may be {@code null}
+     * @param fields the fields to serialize
+     * @return the JSON tree of the selected fields
+     */
+    public JsonElement toJsonTree(Object value, FieldTree fields) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (fields.isAll()) {
+            return gson.toJsonTree(value);
+        }
+        if (value instanceof Iterable<?> iterable) {
+            JsonArray array = new JsonArray();
+            for (Object element : iterable) {
+                array.add(toJsonTree(element, fields));
+            }
+            return array;
+        }
+        if (value instanceof Object[] objects) {
+            JsonArray array = new JsonArray(objects.length);
+            for (Object element : objects) {
+                array.add(toJsonTree(element, fields));
+            }
+            return array;
+        }
+        if (value instanceof Map<?, ?> map) {
+            JsonObject object = new JsonObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                FieldTree child = fields.get(key);
+                if (child != null) {
+                    object.add(key, toJsonTree(entry.getValue(), child));
+                }
+            }
+            return object;
+        }
+        if (value instanceof JsonElement element) {
+            return project(element, fields);
+        }
+
+        List<BoundField> boundFields = classes.computeIfAbsent(value.getClass(), this::bindFields);
+        if (boundFields.isEmpty()) {
+            return project(gson.toJsonTree(value), fields);
+        }
+
+        JsonObject object = new JsonObject();
+        for (BoundField boundField : boundFields) {
+            FieldTree child = fields.get(boundField.name());
+            if (child == null) {
+                continue;
+            }
+            Object fieldValue;
+            try {
+                fieldValue = boundField.field().get(value);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot read field %s of %s".formatted(boundField.field().getName(),
+                        value.getClass().getName()), ex);
+            }
+            if (fieldValue != null || gson.serializeNulls()) {
+                object.add(boundField.name(), toJsonTree(fieldValue, child));
+            }
+        }
+        return object;
+    }
+
+    private JsonElement project(JsonElement element, FieldTree fields) {
+        if (element.isJsonArray()) {
+            JsonArray array = new JsonArray();
+            for (JsonElement child : element.getAsJsonArray()) {
+                array.add(project(child, fields));
+            }
+            return array;
+        }
+        if (!element.isJsonObject()) {
+            return element;
+        }
+        JsonObject object = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+            FieldTree child = fields.get(entry.getKey());
+            if (child != null) {
+                object.add(entry.getKey(), child.isAll() ? entry.getValue() : project(entry.getValue(), child));
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Gets the fields Gson serializes for a class.
+     * <p>
+     * Fields are filtered through the excluder of the Gson instance, so modifiers, versions, {@code @Expose}
+     * and exclusion strategies hide fields from selections exactly as they do from regular serialization.
+     * </p>
+     *
+     * @return the fields in serialization order, or an empty list if Gson does not serialize the class
+     * field by field, e.g. because a type adapter is registered for it
+     */
+    // Gson exposes its exclusion rules only through the deprecated excluder()
+    @SuppressWarnings("deprecation")
+    private List<BoundField> bindFields(Class<?> clazz) {
+        Excluder excluder = gson.excluder();
+        try {
+            if (clazz.isArray() || clazz.isEnum() || !gson.getAdapter(clazz).getClass().getName().startsWith(REFLECTIVE_ADAPTER_PREFIX)) {
+                return List.of();
+            }
+        } catch (RuntimeException ex) {
+            return List.of();
+        }
+
+        List<BoundField> fields = new ArrayList<>();
+        // Same order as Gson: the fields of the class itself first, then those of its superclasses
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isSynthetic() || excluder.excludeField(field, true) || excluder.excludeClass(field.getType(), true)) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                } catch (RuntimeException ex) {
+                    return List.of();
+                }
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                String name = serializedName != null ? serializedName.value() : gson.fieldNamingStrategy().translateName(field);
+                fields.add(new BoundField(name, field));
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+}
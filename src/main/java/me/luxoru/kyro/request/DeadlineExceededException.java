@@ -0,0 +1,27 @@
+package me.luxoru.kyro.request;
+
+/**
+ * Thrown when a request is still being handled after its deadline has passed.
+ * <p>
+ * Kyro throws this exception when a handler exceeds the timeout of its route, and handlers may throw it
+ * themselves through {@link Request#checkDeadline()}. Either way the client receives
+ * {@link me.luxoru.kyro.response.ResponseCode#GATEWAY_TIMEOUT}.
+ * </p>
+ *
+ * @see RestPath#timeout()
+ * @author Luxoru
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the given message.
+     *
+     * @param message the detail message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+}
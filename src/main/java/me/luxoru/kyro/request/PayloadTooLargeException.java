@@ -0,0 +1,28 @@
+package me.luxoru.kyro.request;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request body exceeds the size limit of its route.
+ * <p>
+ * Handlers normally let this exception propagate, in which case Kyro answers with
+ * {@link me.luxoru.kyro.response.ResponseCode#PAYLOAD_TOO_LARGE}.
+ * </p>
+ *
+ * @see RestPath#maxBodySize()
+ * @author Luxoru
+ */
+public class PayloadTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception for the given limit.
+     *
+     * @param maxBodySize the limit that has been exceeded, in bytes
+     */
+    public PayloadTooLargeException(long maxBodySize) {
+        super("Request body exceeds the limit of %d bytes".formatted(maxBodySize));
+    }
+
+}
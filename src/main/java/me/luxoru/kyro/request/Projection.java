@@ -0,0 +1,30 @@
+package me.luxoru.kyro.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the fields of the value a route returns.
+ * <p>
+ * Only the listed fields are read and serialized, using the syntax of the {@code fields} query parameter,
+ * e.g. {@code "name,address(city,zip),orders.id"}. Clients can narrow the projection further with the
+ * query parameter, but cannot select fields outside of it.
+ * </p>
+ *
+ * @see me.luxoru.kyro.projection.FieldTree
+ * @author Luxoru
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Projection {
+
+    /**
+     * Specifies the fields of the returned value that are sent.
+     *
+     * @return the field selection (e.g., "name,address(city,zip)")
+     */
+    String value();
+
+}
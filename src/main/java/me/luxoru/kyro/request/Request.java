@@ -2,15 +2,32 @@ package me.luxoru.kyro.request;
 
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.luxoru.kyro.request.fanout.FanOut;
+import me.luxoru.kyro.request.fanout.FanOutPolicy;
+import me.luxoru.kyro.request.multipart.MultipartBody;
+import me.luxoru.kyro.request.multipart.MultipartParser;
 import me.luxoru.kyro.util.HTTPUtils;
+import me.luxoru.kyro.util.LimitedInputStream;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents an HTTP request in the context of the Kyro framework.
@@ -20,13 +37,33 @@ import java.util.Map;
  * @author Luxoru
  */
 @Getter
+@Slf4j(topic = "Kyro")
 public class Request {
 
+    /**
+     * The exchange attribute marking synthetic requests Kyro sends to warm up routes before it accepts traffic.
+     */
+    public static final String WARMUP_ATTRIBUTE = "kyro.warmup";
+
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
     private final HttpExchange httpExchange;
     private final Headers headers;
     private final Map<String, String> parameters;
     private final RequestMethod method;
     private final InputStream body;
+    private final UploadSettings uploadSettings;
+    /**
+     * The timings of the work done for this request, sent to the client in the {@code Server-Timing} header.
+     */
+    private final RequestTrace trace = new RequestTrace();
+
+    @Getter(AccessLevel.NONE)
+    private final List<Path> temporaryFiles = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private MultipartBody multipart;
+    @Getter(AccessLevel.NONE)
+    private final long deadlineNanos;
 
     /**
      * Constructs a new {@code Request} object.
@@ -34,10 +71,35 @@ public class Request {
      * @param httpExchange the {@link HttpExchange} instance representing the HTTP request
      */
     public Request(HttpExchange httpExchange) {
+        this(httpExchange, UploadSettings.DEFAULT);
+    }
+
+    /**
+     * Constructs a new {@code Request} object.
+     *
+     * @param httpExchange the {@link HttpExchange} instance representing the HTTP request
+     * @param uploadSettings the settings controlling how the request body is read
+     */
+    public Request(HttpExchange httpExchange, UploadSettings uploadSettings) {
+        this(httpExchange, uploadSettings, 0);
+    }
+
+    /**
+     * Constructs a new {@code Request} object.
+     *
+     * @param httpExchange the {@link HttpExchange} instance representing the HTTP request
+     * @param uploadSettings the settings controlling how the request body is read
+     * @param timeoutMillis the time from now the request must be handled in, or {@code 0} for no deadline
+     */
+    public Request(HttpExchange httpExchange, UploadSettings uploadSettings, long timeoutMillis) {
+        this.deadlineNanos = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
         this.httpExchange = httpExchange;
-        this.body = httpExchange.getRequestBody();
+        this.uploadSettings = uploadSettings;
+        this.body = uploadSettings.maxBodySize() >= 0
+                ? new LimitedInputStream(httpExchange.getRequestBody(), uploadSettings.maxBodySize())
+                : httpExchange.getRequestBody();
         this.headers = httpExchange.getRequestHeaders();
-        this.parameters = Collections.unmodifiableMap(HTTPUtils.getParameters(httpExchange.getRequestURI().getQuery()));
+        this.parameters = Collections.unmodifiableMap(HTTPUtils.getParameters(httpExchange.getRequestURI().getRawQuery()));
         this.method = RequestMethod.fromName(httpExchange.getRequestMethod());
     }
 
@@ -50,6 +112,20 @@ public class Request {
         return httpExchange.getRequestURI();
     }
 
+    /**
+     * Checks whether the request is a synthetic warm-up request.
+     * <p>
+     * Warm-up requests are sent in-process while the server starts, before it accepts connections.
+     * Handlers with side effects, such as writing to a database, should skip them for these requests.
+     * </p>
+     *
+     * @return {@code true} if the request is a warm-up request
+     * @see me.luxoru.kyro.Kyro.KyroBuilder#enableWarmup(int)
+     */
+    public boolean isWarmup() {
+        return httpExchange.getAttribute(WARMUP_ATTRIBUTE) != null;
+    }
+
     /**
      * Gets the client address that made the request.
      *
@@ -112,4 +188,160 @@ public class Request {
         return parameters.get(name);
     }
 
+    /**
+     * Checks whether this request has a deadline.
+     *
+     * @return {@code true} if the route of this request has a timeout
+     */
+    public boolean hasDeadline() {
+        return deadlineNanos != 0;
+    }
+
+    /**
+     * Gets the time left until the deadline of this request.
+     * <p>
+     * Handlers should pass this on as the timeout of downstream calls, so work is not continued
+     * for a client that has already received a timeout.
+     * </p>
+     *
+     * @return the remaining time, {@link Duration#ZERO} if the deadline has passed, or {@code null} if the
+     *         request has no deadline
+     */
+    public Duration getRemainingTime() {
+        if (!hasDeadline()) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Fails if the deadline of this request has passed.
+     *
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void checkDeadline() {
+        if (hasDeadline() && deadlineNanos - System.nanoTime() <= 0) {
+            throw new DeadlineExceededException("Deadline of request to %s has passed".formatted(getURI().getPath()));
+        }
+    }
+
+    /**
+     * Opens a {@link FanOutPolicy#FAIL_FAST fail-fast} fan-out, running subtasks of this request in parallel.
+     *
+     * @return the fan-out, to be used in a {@code try}-with-resources block
+     * @see FanOut
+     */
+    public FanOut<Object> fanOut() {
+        return new FanOut<>(FanOutPolicy.FAIL_FAST, this);
+    }
+
+    /**
+     * Opens a fan-out running subtasks of this request in parallel.
+     * <p>
+     * Subtasks inherit the deadline of this request, and the time each one takes is recorded in its
+     * {@link #getTrace() trace}.
+     * </p>
+     *
+     * @param policy when to stop waiting for the subtasks
+     * @param <T> the common type of the subtask results
+     * @return the fan-out, to be used in a {@code try}-with-resources block
+     * @see FanOut
+     */
+    public <T> FanOut<T> fanOut(FanOutPolicy policy) {
+        return new FanOut<>(policy, this);
+    }
+
+    /**
+     * Gets the declared length of the request body.
+     *
+     * @return the value of the {@code Content-Length} header, or {@code -1} if it is missing or invalid
+     */
+    public long getContentLength() {
+        String contentLength = getHeader("Content-Length");
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets a channel reading the request body.
+     * <p>
+     * Reading past the size limit of the route fails with a {@link PayloadTooLargeException}.
+     * </p>
+     *
+     * @return a {@link ReadableByteChannel} over the body
+     */
+    public ReadableByteChannel getBodyChannel() {
+        return Channels.newChannel(body);
+    }
+
+    /**
+     * Streams the request body into a temporary file without buffering it in memory.
+     * <p>
+     * The file is deleted once the request has been handled; move it elsewhere to keep it.
+     * </p>
+     *
+     * @return the {@link Path} of the temporary file
+     * @throws PayloadTooLargeException if the body exceeds the size limit of the route
+     * @throws IOException if the body cannot be read or written
+     */
+    public Path getBodyAsFile() throws IOException {
+        Path path = Files.createTempFile(uploadSettings.directory(), "kyro-", ".body");
+        temporaryFiles.add(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = getBodyChannel();
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Parses the request body as {@code multipart/form-data}.
+     * <p>
+     * The body is parsed incrementally on the first call. Parts larger than the memory threshold are
+     * written to temporary files which are deleted once the request has been handled.
+     * </p>
+     *
+     * @return the parsed body, or {@code null} if the request is not {@code multipart/form-data}
+     * @throws PayloadTooLargeException if the body exceeds the size limit of the route
+     * @throws IOException if the body is malformed or cannot be read
+     */
+    public MultipartBody getMultipart() throws IOException {
+        if (multipart == null) {
+            String boundary = MultipartParser.getBoundary(getHeader("Content-Type"));
+            if (boundary == null) {
+                return null;
+            }
+            multipart = new MultipartParser(body, boundary, uploadSettings, temporaryFiles).parse();
+        }
+        return multipart;
+    }
+
+    /**
+     * Deletes the temporary files created while reading the request body.
+     * <p>
+     * Called by Kyro once the request has been handled.
+     * </p>
+     */
+    public void cleanup() {
+        for (Path path : temporaryFiles) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                log.warn("Failed deleting temporary upload file {}", path, ex);
+            }
+        }
+        temporaryFiles.clear();
+    }
+
 }
@@ -0,0 +1,92 @@
+package me.luxoru.kyro.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of the work done while handling a request.
+ * <p>
+ * Spans are recorded by Kyro, e.g. for the subtasks of a {@link me.luxoru.kyro.request.fanout.FanOut}, and
+ * may be recorded by handlers. They are sent to the client in the {@code Server-Timing} header, which
+ * browsers show next to the network timings of the request.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class RequestTrace {
+
+    private final long startedNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+
+    /**
+     * A timed piece of work.
+     *
+     * @param name the name of the work
+     * @param offsetNanos the time the work started, relative to the arrival of the request
+     * @param durationNanos the time the work took
+     * @param outcome a short description of the outcome (e.g., "success"), may be {@code null}
+     */
+    public record Span(String name, long offsetNanos, long durationNanos, String outcome) {
+    }
+
+    /**
+     * Records a span.
+     *
+     * @param name the name of the work
+     * @param startNanos the {@link System#nanoTime()} the work started at
+     * @param durationNanos the time the work took
+     * @param outcome a short description of the outcome, may be {@code null}
+     */
+    public synchronized void record(String name, long startNanos, long durationNanos, String outcome) {
+        spans.add(new Span(name, startNanos - startedNanos, durationNanos, outcome));
+    }
+
+    /**
+     * Gets the recorded spans.
+     *
+     * @return a copy of the spans, in the order they were recorded
+     */
+    public synchronized List<Span> getSpans() {
+        return List.copyOf(spans);
+    }
+
+    /**
+     * Checks whether no span has been recorded.
+     *
+     * @return {@code true} if the trace is empty
+     */
+    public synchronized boolean isEmpty() {
+        return spans.isEmpty();
+    }
+
+    /**
+     * Formats the spans as the value of a {@code Server-Timing} header.
+     *
+     * @return the header value, e.g. {@code user;desc="success";dur=12.5, orders;desc="failed";dur=3.1}
+     */
+    public synchronized String toServerTiming() {
+        StringBuilder builder = new StringBuilder();
+        for (Span span : spans) {
+            if (!builder.isEmpty()) {
+                builder.append(", ");
+            }
+            builder.append(toToken(span.name()));
+            if (span.outcome() != null) {
+                builder.append(";desc=\"").append(span.outcome().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+            builder.append(";dur=").append(TimeUnit.NANOSECONDS.toMicros(span.durationNanos()) / 1000.0);
+        }
+        return builder.toString();
+    }
+
+    private static String toToken(String name) {
+        StringBuilder token = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            token.append(c < 128 && (Character.isLetterOrDigit(c) || "!#$%&'*+-.^_`|~".indexOf(c) != -1) ? c : '_');
+        }
+        return token.isEmpty() ? "_" : token.toString();
+    }
+
+}
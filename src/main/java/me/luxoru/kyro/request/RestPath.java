@@ -1,5 +1,8 @@
 package me.luxoru.kyro.request;
 
+import me.luxoru.kyro.flight.DefaultFlightKeyExtractor;
+import me.luxoru.kyro.flight.FlightKeyExtractor;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -38,4 +41,58 @@ public @interface RestPath {
      */
     RequestMethod method();
 
+    /**
+     * Specifies whether concurrent identical requests share a single handler call.
+     * <p>
+     * When enabled on a {@link RequestMethod#GET} endpoint, requests arriving while a call with the
+     * same {@link #flightKey() key} is in progress wait for that call and receive its encoded response
+     * instead of invoking the handler again. A waiting request still answers at its own
+     * {@link #timeout() deadline}, with {@link me.luxoru.kyro.response.ResponseCode#GATEWAY_TIMEOUT}.
+     * Ignored for other request methods.
+     * </p>
+     *
+     * @return {@code true} if concurrent identical requests should be coalesced
+     */
+    boolean singleFlight() default false;
+
+    /**
+     * Specifies how the coalescing key is extracted for a {@link #singleFlight() single-flight} endpoint.
+     *
+     * @return the {@link FlightKeyExtractor} implementation to use
+     */
+    Class<? extends FlightKeyExtractor> flightKey() default DefaultFlightKeyExtractor.class;
+
+    /**
+     * Specifies the maximum size of the request body for the RESTful endpoint.
+     * <p>
+     * Requests declaring a larger {@code Content-Length} are rejected with
+     * {@link me.luxoru.kyro.response.ResponseCode#PAYLOAD_TOO_LARGE} before the handler is invoked.
+     * Reading past the limit fails with a {@link PayloadTooLargeException}.
+     * </p>
+     *
+     * @return the limit in bytes, or {@code -1} to use the default configured on the Kyro builder
+     */
+    long maxBodySize() default -1;
+
+    /**
+     * Specifies how long the handler of the RESTful endpoint may run, in milliseconds.
+     * <p>
+     * When the deadline passes the client receives {@link me.luxoru.kyro.response.ResponseCode#GATEWAY_TIMEOUT}
+     * and the handler thread is interrupted. The client is answered at the deadline even if the handler ignores
+     * the interrupt, and whatever the handler returns afterwards is discarded. The remaining time is available through
+     * {@link Request#getRemainingTime()} so it can be passed on to downstream calls.
+     * </p>
+     *
+     * @return the timeout in milliseconds, {@code 0} for no timeout, or {@code -1} to use the default
+     *         configured on the Kyro builder
+     */
+    long timeout() default -1;
+
+    /**
+     * Specifies the lane the RESTful endpoint is handled in, overriding {@link Route#lane()}.
+     *
+     * @return the name of the lane, or an empty string to use the lane of the route
+     */
+    String lane() default "";
+
 }
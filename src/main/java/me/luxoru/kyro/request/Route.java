@@ -33,4 +33,15 @@ public @interface Route {
      */
     String path() default "";
 
+    /**
+     * Specifies the lane the endpoints of this route are handled in.
+     * <p>
+     * Lanes are configured on the Kyro builder and give a group of routes its own bounded thread budget.
+     * Endpoints may override the lane with {@link RestPath#lane()}.
+     * </p>
+     *
+     * @return the name of the lane, or an empty string to handle requests on the server executor
+     */
+    String lane() default "";
+
 }
@@ -0,0 +1,35 @@
+package me.luxoru.kyro.request;
+
+import java.nio.file.Path;
+
+/**
+ * Settings controlling how request bodies are read.
+ *
+ * @param maxBodySize the maximum size of a request body in bytes, or a negative value for no limit
+ * @param memoryThreshold the size up to which a multipart part is kept in memory before it is written to disk
+ * @param memoryBudget the total size of the multipart parts of a request kept in memory, later parts are
+ *                     written to disk once it is used up
+ * @param directory the directory temporary upload files are created in
+ *
+ * @author Luxoru
+ */
+public record UploadSettings(long maxBodySize, int memoryThreshold, int memoryBudget, Path directory) {
+
+    /**
+     * The default settings: no size limit, a 64 KiB memory threshold, a 1 MiB memory budget and the system
+     * temporary directory.
+     */
+    public static final UploadSettings DEFAULT = new UploadSettings(-1, 64 * 1024, 1024 * 1024,
+            Path.of(System.getProperty("java.io.tmpdir")));
+
+    /**
+     * Returns a copy of these settings with a different body size limit.
+     *
+     * @param maxBodySize the maximum size of a request body in bytes, or a negative value for no limit
+     * @return the new settings
+     */
+    public UploadSettings withMaxBodySize(long maxBodySize) {
+        return new UploadSettings(maxBodySize, memoryThreshold, memoryBudget, directory);
+    }
+
+}
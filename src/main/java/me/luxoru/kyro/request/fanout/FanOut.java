@@ -0,0 +1,284 @@
+package me.luxoru.kyro.request.fanout;
+
+import me.luxoru.kyro.request.DeadlineExceededException;
+import me.luxoru.kyro.request.Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the subtasks of a request in parallel, each on its own virtual thread, and waits for them as a unit.
+ * <p>
+ * A fan-out is structured: it is opened in a {@code try}-with-resources block, subtasks are forked, the
+ * handler {@link #join() joins} them, and by the time the block is left every subtask has finished. Subtasks
+ * therefore never outlive the handler that forked them, whatever the outcome.
+ * </p>
+ * <pre>{@code
+ * try (FanOut<Object> fanOut = request.fanOut()) {
+ *     Subtask<User> user = fanOut.fork("user", () -> users.get(id));
+ *     Subtask<List<Order>> orders = fanOut.fork("orders", () -> orders.forUser(id));
+ *     fanOut.join();
+ *     return new Profile(user.get(), orders.get());
+ * }
+ * }</pre>
+ * <p>
+ * The fan-out inherits the deadline of the request: joining fails with a {@link DeadlineExceededException}
+ * and interrupts the remaining subtasks once it passes. When Kyro gives up on the handler, e.g. because
+ * the route timed out, the interrupted handler interrupts the subtasks the same way. The time each subtask
+ * took is recorded in the {@link Request#getTrace() trace} of the request.
+ * </p>
+ * <p>
+ * This mirrors {@code StructuredTaskScope}, which is a preview API in Java 21, with its
+ * {@code ShutdownOnFailure} and {@code ShutdownOnSuccess} policies.
+ * </p>
+ *
+ * @param <T> the common type of the subtask results
+ * @author Luxoru
+ */
+public class FanOut<T> implements AutoCloseable {
+
+    private final FanOutPolicy policy;
+    private final Request request;
+    private final Thread owner;
+    private final List<Forked<? extends T>> forked = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private int completed;
+    private boolean shutdown;
+    private boolean joined;
+    private Forked<? extends T> firstFailure;
+    private Forked<? extends T> firstSuccess;
+
+    /**
+     * Opens a fan-out for a request.
+     *
+     * @param policy when to stop waiting for the subtasks
+     * @param request the request whose deadline and trace the fan-out uses
+     */
+    public FanOut(FanOutPolicy policy, Request request) {
+        this.policy = policy;
+        this.request = request;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Starts a subtask on a new virtual thread.
+     * <p>
+     * Subtasks forked after the fan-out has finished, e.g. after a subtask failed under
+     * {@link FanOutPolicy#FAIL_FAST}, are not started and stay {@link Subtask.State#UNAVAILABLE}.
+     * </p>
+     *
+     * @param name the name of the subtask, used in the trace and in thread names
+     * @param task the task to run
+     * @param <U> the type of the result
+     * @return the subtask, holding the result once the fan-out is joined
+     * @throws IllegalStateException if the fan-out has already been joined or closed
+     */
+    public <U extends T> Subtask<U> fork(String name, Callable<? extends U> task) {
+        Subtask<U> subtask = new Subtask<>(name);
+        Forked<U> fork = new Forked<>(subtask, task);
+
+        lock.lock();
+        try {
+            if (joined) {
+                throw new IllegalStateException("Cannot fork subtask %s after joining".formatted(name));
+            }
+            if (shutdown) {
+                return subtask;
+            }
+            forked.add(fork);
+            fork.thread = Thread.ofVirtual().name("kyro-fanout-" + name).unstarted(fork::run);
+            fork.thread.start();
+        } finally {
+            lock.unlock();
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until the subtasks produced the outcome the policy asks for, or the deadline of the request passed.
+     *
+     * @return this fan-out
+     * @throws FanOutException if a subtask failed under {@link FanOutPolicy#FAIL_FAST}, or every subtask
+     * failed under {@link FanOutPolicy#FIRST_SUCCESS}
+     * @throws DeadlineExceededException if the deadline of the request passed first
+     * @throws InterruptedException if the handler was interrupted while waiting
+     * @throws IllegalStateException if called from another thread than the one that opened the fan-out
+     */
+    public FanOut<T> join() throws InterruptedException {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Only the thread that opened the fan-out can join it");
+        }
+
+        lock.lock();
+        try {
+            joined = true;
+            Duration remaining = request.getRemainingTime();
+            long deadlineNanos = remaining != null ? System.nanoTime() + remaining.toNanos() : 0;
+
+            while (!shutdown && completed < forked.size()) {
+                if (remaining == null) {
+                    changed.await();
+                    continue;
+                }
+                long waitNanos = deadlineNanos - System.nanoTime();
+                if (waitNanos <= 0) {
+                    shutdown();
+                    throw new DeadlineExceededException("Deadline of request to %s passed while waiting for %d of %d subtasks"
+                            .formatted(request.getURI().getPath(), forked.size() - completed, forked.size()));
+                }
+                changed.awaitNanos(waitNanos);
+            }
+        } catch (InterruptedException ex) {
+            shutdown();
+            throw ex;
+        } finally {
+            lock.unlock();
+        }
+
+        if (policy == FanOutPolicy.FAIL_FAST && firstFailure != null) {
+            throw new FanOutException("Subtask %s failed".formatted(firstFailure.subtask.getName()),
+                    firstFailure.subtask.getException());
+        }
+        if (policy == FanOutPolicy.FIRST_SUCCESS && firstSuccess == null && !forked.isEmpty()) {
+            throw new FanOutException("All %d subtasks failed".formatted(forked.size()),
+                    firstFailure != null ? firstFailure.subtask.getException() : null);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the result of the first subtask that succeeded, for {@link FanOutPolicy#FIRST_SUCCESS}.
+     *
+     * @return the result
+     * @throws IllegalStateException if the fan-out has not been joined or no subtask succeeded
+     */
+    public T result() {
+        lock.lock();
+        try {
+            if (!joined || firstSuccess == null) {
+                throw new IllegalStateException("No subtask has succeeded");
+            }
+            return firstSuccess.subtask.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Interrupts the subtasks that are still running and waits for every subtask to finish.
+     */
+    @Override
+    public void close() {
+        List<Forked<? extends T>> threads;
+        lock.lock();
+        try {
+            shutdown();
+            joined = true;
+            threads = List.copyOf(forked);
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        for (Forked<? extends T> fork : threads) {
+            while (true) {
+                try {
+                    fork.thread.join();
+                    break;
+                } catch (InterruptedException ex) {
+                    // Subtasks must not outlive the fan-out, keep waiting and restore the interrupt afterwards
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops waiting and interrupts the subtasks still running. Must be called while holding the lock.
+     */
+    private void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        for (Forked<? extends T> fork : forked) {
+            if (fork.subtask.getState() == Subtask.State.UNAVAILABLE) {
+                fork.thread.interrupt();
+            }
+        }
+        changed.signalAll();
+    }
+
+    /**
+     * Completes a subtask and applies the policy to its outcome.
+     *
+     * @return the state the subtask completed in
+     */
+    private <U extends T> Subtask.State complete(Forked<U> fork, U result, Throwable exception, long durationNanos) {
+        lock.lock();
+        try {
+            // A subtask finishing after the fan-out is done only ran on because it ignored the interrupt
+            Subtask.State state = shutdown ? Subtask.State.CANCELLED
+                    : exception != null ? Subtask.State.FAILED : Subtask.State.SUCCESS;
+            fork.subtask.complete(state, result, exception, durationNanos);
+            completed++;
+
+            if (state == Subtask.State.FAILED && firstFailure == null) {
+                firstFailure = fork;
+                if (policy == FanOutPolicy.FAIL_FAST) {
+                    shutdown();
+                }
+            } else if (state == Subtask.State.SUCCESS && policy == FanOutPolicy.FIRST_SUCCESS) {
+                firstSuccess = fork;
+                shutdown();
+            }
+            changed.signalAll();
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A subtask together with the task and thread running it.
+     */
+    private final class Forked<U extends T> {
+
+        private final Subtask<U> subtask;
+        private final Callable<? extends U> task;
+        private Thread thread;
+
+        private Forked(Subtask<U> subtask, Callable<? extends U> task) {
+            this.subtask = subtask;
+            this.task = task;
+        }
+
+        private void run() {
+            long startedNanos = System.nanoTime();
+            U result = null;
+            Throwable exception = null;
+
+            try {
+                result = task.call();
+            } catch (Throwable throwable) {
+                exception = throwable;
+            }
+
+            long durationNanos = System.nanoTime() - startedNanos;
+            Subtask.State state = FanOut.this.complete(this, result, exception, durationNanos);
+            request.getTrace().record(subtask.getName(), startedNanos, durationNanos, state.name().toLowerCase());
+        }
+
+    }
+
+}
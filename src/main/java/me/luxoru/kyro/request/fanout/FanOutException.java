@@ -0,0 +1,25 @@
+package me.luxoru.kyro.request.fanout;
+
+/**
+ * Thrown when the subtasks of a {@link FanOut} did not produce the result its {@link FanOutPolicy} requires.
+ * <p>
+ * The cause is the exception of the subtask that failed first.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class FanOutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the given message and cause.
+     *
+     * @param message the detail message
+     * @param cause the exception of the failed subtask
+     */
+    public FanOutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
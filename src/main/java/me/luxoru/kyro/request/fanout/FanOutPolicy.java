@@ -0,0 +1,20 @@
+package me.luxoru.kyro.request.fanout;
+
+/**
+ * Decides when a {@link FanOut} stops waiting for its subtasks.
+ *
+ * @author Luxoru
+ */
+public enum FanOutPolicy {
+
+    /**
+     * Waits for every subtask to succeed. The first failure cancels the remaining subtasks and fails the join.
+     */
+    FAIL_FAST,
+
+    /**
+     * Waits for the first subtask to succeed and cancels the others. The join only fails if every subtask fails.
+     */
+    FIRST_SUCCESS
+
+}
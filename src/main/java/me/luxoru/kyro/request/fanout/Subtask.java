@@ -0,0 +1,107 @@
+package me.luxoru.kyro.request.fanout;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A task forked in a {@link FanOut}.
+ * <p>
+ * The result of a subtask is available once {@link FanOut#join()} has returned.
+ * </p>
+ *
+ * @param <T> the type of the result
+ * @author Luxoru
+ */
+public final class Subtask<T> {
+
+    /**
+     * The state of a subtask.
+     */
+    public enum State {
+
+        /**
+         * The subtask is still running, or was never started because the fan-out had already finished.
+         */
+        UNAVAILABLE,
+
+        /**
+         * The subtask completed with a result.
+         */
+        SUCCESS,
+
+        /**
+         * The subtask completed with an exception.
+         */
+        FAILED,
+
+        /**
+         * The subtask was interrupted because the fan-out finished before it did.
+         */
+        CANCELLED
+
+    }
+
+    /**
+     * The name the subtask was forked with.
+     */
+    @Getter
+    private final String name;
+
+    private volatile State state = State.UNAVAILABLE;
+    private volatile T result;
+    private volatile Throwable exception;
+    private volatile long durationNanos = -1;
+
+    Subtask(String name) {
+        this.name = name;
+    }
+
+    void complete(State state, T result, Throwable exception, long durationNanos) {
+        this.result = result;
+        this.exception = exception;
+        this.durationNanos = durationNanos;
+        this.state = state;
+    }
+
+    /**
+     * Gets the state of the subtask.
+     *
+     * @return the state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the result of the subtask.
+     *
+     * @return the result
+     * @throws IllegalStateException if the subtask did not succeed
+     */
+    public T get() {
+        if (state != State.SUCCESS) {
+            throw new IllegalStateException("Subtask %s has no result, it is %s".formatted(name, state));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the exception the subtask failed with.
+     *
+     * @return the exception, or {@code null} if the subtask did not fail
+     */
+    public Throwable getException() {
+        return state == State.FAILED ? exception : null;
+    }
+
+    /**
+     * Gets the time the subtask ran for.
+     *
+     * @return the duration, or {@code null} if the subtask has not completed
+     */
+    public Duration getDuration() {
+        return durationNanos < 0 ? null : Duration.ofNanos(durationNanos);
+    }
+
+}
@@ -0,0 +1,59 @@
+package me.luxoru.kyro.request.multipart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parsed parts of a {@code multipart/form-data} request body.
+ *
+ * @author Luxoru
+ */
+public class MultipartBody {
+
+    private final List<Part> parts;
+
+    MultipartBody(List<Part> parts) {
+        this.parts = List.copyOf(parts);
+    }
+
+    /**
+     * Gets all parts in the order they were sent.
+     *
+     * @return an unmodifiable list of parts
+     */
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    /**
+     * Gets the first part with the given name.
+     *
+     * @param name the name of the form field
+     * @return the part, or {@code null} if no part with the given name was sent
+     */
+    public Part getPart(String name) {
+        for (Part part : parts) {
+            if (part.getName().equals(name)) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all parts with the given name.
+     *
+     * @param name the name of the form field
+     * @return a list of parts, empty if no part with the given name was sent
+     */
+    public List<Part> getParts(String name) {
+        List<Part> matching = new ArrayList<>();
+        for (Part part : parts) {
+            if (part.getName().equals(name)) {
+                matching.add(part);
+            }
+        }
+        return matching;
+    }
+
+}
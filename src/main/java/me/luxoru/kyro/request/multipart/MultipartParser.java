@@ -0,0 +1,289 @@
+package me.luxoru.kyro.request.multipart;
+
+import com.sun.net.httpserver.Headers;
+import me.luxoru.kyro.request.UploadSettings;
+import me.luxoru.kyro.util.HTTPUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally parses a {@code multipart/form-data} body.
+ * <p>
+ * The body is read through a fixed size buffer and each part is handed to a sink as soon as it is
+ * known not to contain the boundary. Parts stay in memory up to {@link UploadSettings#memoryThreshold()}
+ * while the parts of the body together stay within {@link UploadSettings#memoryBudget()}, and are written
+ * to a temporary file through a {@link FileChannel} beyond that, so memory use per upload is bounded
+ * regardless of the size of the body and the number of parts.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class MultipartParser {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+    private static final int MAX_PARTS = 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final UploadSettings settings;
+    private final List<Path> temporaryFiles;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long memoryUsed;
+
+    /**
+     * Constructs a new parser.
+     *
+     * @param in the request body
+     * @param boundary the boundary taken from the {@code Content-Type} header
+     * @param settings the settings controlling when parts are written to disk
+     * @param temporaryFiles the list every created temporary file is added to, so it can be deleted later
+     */
+    public MultipartParser(InputStream in, String boundary, UploadSettings settings, List<Path> temporaryFiles) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.settings = settings;
+        this.temporaryFiles = temporaryFiles;
+    }
+
+    /**
+     * Gets the boundary of a multipart {@code Content-Type} header.
+     *
+     * @param contentType the value of the {@code Content-Type} header, may be {@code null}
+     * @return the boundary, or {@code null} if the content type is not {@code multipart/form-data}
+     */
+    public static String getBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/form-data")) {
+            return null;
+        }
+        String boundary = HTTPUtils.getHeaderParameter(contentType, "boundary");
+        return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+
+    /**
+     * Parses the body.
+     *
+     * @return the parsed body
+     * @throws IOException if the body is malformed or cannot be read
+     */
+    public MultipartBody parse() throws IOException {
+        // The first boundary is not preceded by a line break, pretend it is so every boundary matches the delimiter
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+
+        readUntilDelimiter(null);
+
+        List<Part> parts = new ArrayList<>();
+
+        while (true) {
+            int first = readByte();
+            int second = readByte();
+
+            if (first == '-' && second == '-') {
+                return new MultipartBody(parts);
+            }
+
+            // Transport padding after the boundary
+            while (first == ' ' || first == '\t') {
+                first = second;
+                second = readByte();
+            }
+
+            if (first != '\r' || second != '\n') {
+                throw new IOException("Malformed multipart body: expected line break after boundary");
+            }
+
+            if (parts.size() == MAX_PARTS) {
+                throw new IOException("Multipart body has more than %d parts".formatted(MAX_PARTS));
+            }
+
+            parts.add(readPart());
+        }
+    }
+
+    private Part readPart() throws IOException {
+        Headers headers = readHeaders();
+        String disposition = headers.getFirst("Content-Disposition");
+        String name = HTTPUtils.getHeaderParameter(disposition, "name");
+
+        if (name == null) {
+            throw new IOException("Malformed multipart body: part without a name");
+        }
+
+        try (PartSink sink = new PartSink()) {
+            readUntilDelimiter(sink);
+            return new Part(name, HTTPUtils.getHeaderParameter(disposition, "filename"),
+                    headers.getFirst("Content-Type"), headers, sink.size, sink.path,
+                    sink.memory != null ? sink.memory.toByteArray() : null);
+        }
+    }
+
+    private Headers readHeaders() throws IOException {
+        Headers headers = new Headers();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int total = 0;
+
+        while (true) {
+            int b = readByte();
+
+            if (++total > MAX_HEADER_SIZE) {
+                throw new IOException("Multipart part headers exceed %d bytes".formatted(MAX_HEADER_SIZE));
+            }
+
+            if (b != '\n') {
+                line.write(b);
+                continue;
+            }
+
+            String header = line.toString(StandardCharsets.UTF_8).stripTrailing();
+            line.reset();
+
+            if (header.isEmpty()) {
+                return headers;
+            }
+
+            int colon = header.indexOf(':');
+            if (colon > 0) {
+                headers.add(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * Passes everything up to the next delimiter to the sink and positions the buffer after the delimiter.
+     *
+     * @param sink the sink receiving the content, or {@code null} to discard it
+     */
+    private void readUntilDelimiter(PartSink sink) throws IOException {
+        while (true) {
+            int index = indexOfDelimiter();
+
+            if (index != -1) {
+                if (sink != null) {
+                    sink.write(buffer, position, index - position);
+                }
+                position = index + delimiter.length;
+                return;
+            }
+
+            // Keep enough bytes back to match a delimiter split across two reads
+            int safe = limit - (delimiter.length - 1);
+            if (safe > position) {
+                if (sink != null) {
+                    sink.write(buffer, position, safe - position);
+                }
+                position = safe;
+            }
+
+            if (!fill()) {
+                throw new IOException("Malformed multipart body: unexpected end of body");
+            }
+        }
+    }
+
+    private int indexOfDelimiter() {
+        byte first = delimiter[0];
+        int last = limit - delimiter.length;
+
+        outer:
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new IOException("Malformed multipart body: unexpected end of body");
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read == -1) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    /**
+     * Collects the content of a part, moving it from memory to a temporary file once it passes the threshold
+     * or the parts of the body use up the memory budget.
+     */
+    private final class PartSink implements AutoCloseable {
+
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private FileChannel channel;
+        private Path path;
+        private long size;
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            size += length;
+
+            if (channel == null && (memory.size() + length > settings.memoryThreshold()
+                    || memoryUsed + length > settings.memoryBudget())) {
+                path = Files.createTempFile(settings.directory(), "kyro-", ".part");
+                temporaryFiles.add(path);
+                channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                writeFully(ByteBuffer.wrap(memory.toByteArray()));
+                memoryUsed -= memory.size();
+                memory = null;
+            }
+
+            if (channel != null) {
+                writeFully(ByteBuffer.wrap(bytes, offset, length));
+            } else {
+                memory.write(bytes, offset, length);
+                memoryUsed += length;
+            }
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+
+    }
+
+}
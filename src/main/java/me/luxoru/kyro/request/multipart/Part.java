@@ -0,0 +1,141 @@
+package me.luxoru.kyro.request.multipart;
+
+import com.sun.net.httpserver.Headers;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A single part of a {@code multipart/form-data} request body.
+ * <p>
+ * Parts up to the configured memory threshold are held in memory as long as the memory budget of the request
+ * allows it, other parts are written to a temporary file while the body is parsed. Either way the content is accessed through
+ * {@link #openChannel()}, {@link #openStream()} or {@link #transferTo(Path)}, so handlers never need
+ * to load a large upload into the heap. Temporary files are deleted once the request has been handled.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Getter
+public class Part {
+
+    /**
+     * The name of the form field this part belongs to.
+     */
+    private final String name;
+
+    /**
+     * The file name supplied by the client, or {@code null} if this part is not a file.
+     */
+    private final String fileName;
+
+    /**
+     * The content type of this part, or {@code null} if none was supplied.
+     */
+    private final String contentType;
+
+    /**
+     * The headers of this part.
+     */
+    private final Headers headers;
+
+    /**
+     * The size of the content of this part in bytes.
+     */
+    private final long size;
+
+    /**
+     * The temporary file holding the content, or {@code null} if the content is held in memory.
+     */
+    private final Path path;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] content;
+
+    Part(String name, String fileName, String contentType, Headers headers, long size, Path path, byte[] content) {
+        this.name = name;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.headers = headers;
+        this.size = size;
+        this.path = path;
+        this.content = content;
+    }
+
+    /**
+     * Checks whether the content of this part is held in memory.
+     *
+     * @return {@code true} if the content is in memory, {@code false} if it has been written to {@link #getPath()}
+     */
+    public boolean isInMemory() {
+        return path == null;
+    }
+
+    /**
+     * Opens a channel reading the content of this part.
+     *
+     * @return a new channel positioned at the start of the content
+     * @throws IOException if the temporary file cannot be opened
+     */
+    public ReadableByteChannel openChannel() throws IOException {
+        if (path == null) {
+            return Channels.newChannel(new ByteArrayInputStream(content));
+        }
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Opens a stream reading the content of this part.
+     *
+     * @return a new stream positioned at the start of the content
+     * @throws IOException if the temporary file cannot be opened
+     */
+    public InputStream openStream() throws IOException {
+        if (path == null) {
+            return new ByteArrayInputStream(content);
+        }
+        return Files.newInputStream(path);
+    }
+
+    /**
+     * Moves the content of this part to the given file, replacing it if it exists.
+     * <p>
+     * Parts on disk are moved rather than copied where the file system allows it.
+     * </p>
+     *
+     * @param target the file to write the content to
+     * @throws IOException if the content cannot be written
+     */
+    public void transferTo(Path target) throws IOException {
+        if (path == null) {
+            Files.write(target, content);
+        } else {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Gets the content of this part as a UTF-8 string, intended for small form fields.
+     *
+     * @return the content as a string
+     * @throws IllegalStateException if the content is not held in memory
+     */
+    public String getString() {
+        if (path != null) {
+            throw new IllegalStateException("Part %s is too large to be read as a string".formatted(name));
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+}
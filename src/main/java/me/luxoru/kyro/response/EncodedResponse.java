@@ -0,0 +1,19 @@
+package me.luxoru.kyro.response;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * A fully encoded response, ready to be written to the client.
+ * <p>
+ * Instances are immutable and may be shared between several exchanges, for example when
+ * concurrent requests are coalesced on a single-flight route.
+ * </p>
+ *
+ * @param responseCode the HTTP response code to send
+ * @param headers the headers to send, see {@link Headers#of(java.util.Map)}
+ * @param body the encoded response body, or {@code null} if the response has no body
+ *
+ * @author Luxoru
+ */
+public record EncodedResponse(ResponseCode responseCode, Headers headers, byte[] body) {
+}
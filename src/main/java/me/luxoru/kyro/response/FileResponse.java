@@ -0,0 +1,48 @@
+package me.luxoru.kyro.response;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.nio.file.Path;
+
+/**
+ * A response whose body is the content of a file.
+ * <p>
+ * Returning a {@code FileResponse} from a {@link me.luxoru.kyro.request.RestPath} method streams the file
+ * to the client instead of encoding a JSON envelope. The file is transferred from a cached
+ * {@link java.nio.channels.FileChannel} and is never read into the heap as a whole. {@code Range},
+ * {@code If-None-Match} and {@code If-Modified-Since} requests are honoured.
+ * </p>
+ *
+ * @author Luxoru
+ */
+@Getter
+@Setter
+public class FileResponse {
+
+    /**
+     * The file to send.
+     */
+    private final Path path;
+
+    /**
+     * The content type to send, or {@code null} to probe it from the file.
+     */
+    private String contentType;
+
+    /**
+     * The file name offered to the client as an attachment, or {@code null} to display the file inline.
+     */
+    private String downloadName;
+
+    /**
+     * Constructs a new response for the given file.
+     *
+     * @param path the file to send
+     */
+    public FileResponse(@NonNull Path path) {
+        this.path = path;
+    }
+
+}
@@ -1,14 +1,17 @@
 package me.luxoru.kyro.response;
 
+import com.sun.net.httpserver.Headers;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
+import java.time.Instant;
+
 /**
  * Represents an HTTP response in the context of the Kyro framework.
  * <p>
- * This class encapsulates the details of an HTTP response, including the response code.
- * It provides getters and setters for managing the response code.
+ * This class encapsulates the details of an HTTP response, including the response code and headers.
+ * It provides getters and setters for managing the response code and headers.
  * </p>
  * <p>
  * The default response code is {@link ResponseCode#OK}.
@@ -30,6 +33,32 @@ public class Response {
      */
     private ResponseCode responseCode = ResponseCode.OK;
 
+    /**
+     * The headers to be sent with the response.
+     */
+    private final Headers headers = new Headers();
+
+    /**
+     * A token identifying the version of the returned resource.
+     * <p>
+     * When set, the token is sent as the {@code ETag} of the response. If the client already holds
+     * this version, Kyro answers with {@link ResponseCode#NOT_MODIFIED} without serializing the
+     * returned value.
+     * </p>
+     */
+    @Setter
+    private String version;
+
+    /**
+     * The time the returned resource was last modified.
+     * <p>
+     * When set, it is sent as the {@code Last-Modified} header and used to answer
+     * {@code If-Modified-Since} requests.
+     * </p>
+     */
+    @Setter
+    private Instant lastModified;
+
 
     public void setResponseCode(@NonNull ResponseCode responseCode) {
         if(responseCode == null){
@@ -38,4 +67,34 @@ public class Response {
         this.responseCode = responseCode;
     }
 
+    /**
+     * Sets a header, replacing any values previously set for the given name.
+     *
+     * @param name the name of the header
+     * @param value the value of the header
+     */
+    public void setHeader(String name, String value) {
+        headers.set(name, value);
+    }
+
+    /**
+     * Adds a value to a header, keeping any values previously set for the given name.
+     *
+     * @param name the name of the header
+     * @param value the value to add
+     */
+    public void addHeader(String name, String value) {
+        headers.add(name, value);
+    }
+
+    /**
+     * Gets the first header value with the given name.
+     *
+     * @param name the name of the header
+     * @return the first header value, or {@code null} if no header with the given name has been set
+     */
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
 }
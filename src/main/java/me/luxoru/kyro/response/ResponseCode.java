@@ -23,6 +23,10 @@ public class ResponseCode {
     // Successful
     public static final ResponseCode OK = new ResponseCode(200, "Request was successful");
     public static final ResponseCode CREATED = new ResponseCode(201, "Request was successful and a new resource has been created");
+    public static final ResponseCode PARTIAL_CONTENT = new ResponseCode(206, "Request was successful and the body contains the requested range of data");
+
+    // Redirection
+    public static final ResponseCode NOT_MODIFIED = new ResponseCode(304, "The response has not been modified since the version the client already has");
 
     // Client Error
     public static final ResponseCode BAD_REQUEST = new ResponseCode(400, "The server could not understand the request due to invalid syntax");
@@ -31,6 +35,8 @@ public class ResponseCode {
     public static final ResponseCode NOT_FOUND = new ResponseCode(404, "The server could not find the requested resource");
     public static final ResponseCode METHOD_NOT_ALLOWED = new ResponseCode(405, "The request method is known by the server but is not supported by the target resource");
     public static final ResponseCode GONE = new ResponseCode(410, "The requested content has been permanently deleted from the server");
+    public static final ResponseCode PAYLOAD_TOO_LARGE = new ResponseCode(413, "The request body is larger than limits defined by the server");
+    public static final ResponseCode RANGE_NOT_SATISFIABLE = new ResponseCode(416, "The requested range cannot be fulfilled");
     public static final ResponseCode IM_A_TEAPOT = new ResponseCode(418, "The server refuses the attempt to brew coffee with a teapot");
     public static final ResponseCode TOO_MANY_REQUESTS = new ResponseCode(429, "The client has sent too many requests");
     public static final ResponseCode UNAVAILABLE_FOR_LEGAL_REASONS = new ResponseCode(451, "The client has requested a resource that cannot legally be provided");
@@ -38,6 +44,7 @@ public class ResponseCode {
     // Server Error
     public static final ResponseCode INTERNAL_SERVER_ERROR = new ResponseCode(500, "The server has encountered a situation it doesn't know how to handle");
     public static final ResponseCode SERVICE_UNAVAILABLE = new ResponseCode(503, "The server is not ready to handle the request");
+    public static final ResponseCode GATEWAY_TIMEOUT = new ResponseCode(504, "The server did not finish handling the request in time");
     public static final ResponseCode INSUFFICIENT_STORAGE = new ResponseCode(507, "The server is unable to store the representation needed to successfully complete the request");
     public static final ResponseCode LOOP_DETECTED = new ResponseCode(508, "The server detected an infinite loop whilst processing the request");
 
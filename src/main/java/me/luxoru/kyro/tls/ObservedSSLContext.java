@@ -0,0 +1,94 @@
+package me.luxoru.kyro.tls;
+
+import me.luxoru.kyro.metrics.HandshakeMetrics;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.SecureRandom;
+
+/**
+ * An {@link SSLContext} whose engines report their handshakes to {@link HandshakeMetrics}.
+ * <p>
+ * {@link com.sun.net.httpserver.HttpsServer} creates its {@link SSLEngine}s internally and offers no hook
+ * into the handshake, so the context handed to it is wrapped instead.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class ObservedSSLContext extends SSLContext {
+
+    /**
+     * Wraps an initialized context.
+     *
+     * @param context the context to wrap
+     * @param metrics the metrics handshakes are reported to
+     */
+    public ObservedSSLContext(SSLContext context, HandshakeMetrics metrics) {
+        super(new Spi(context, metrics), context.getProvider(), context.getProtocol());
+    }
+
+    private static final class Spi extends SSLContextSpi {
+
+        private final SSLContext context;
+        private final HandshakeMetrics metrics;
+
+        private Spi(SSLContext context, HandshakeMetrics metrics) {
+            this.context = context;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) {
+            throw new UnsupportedOperationException("Observed SSL contexts wrap an already initialized context");
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return context.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return context.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            return new ObservedSSLEngine(context.createSSLEngine(), metrics);
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            return new ObservedSSLEngine(context.createSSLEngine(host, port), metrics);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return context.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return context.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return context.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return context.getSupportedSSLParameters();
+        }
+
+    }
+
+}
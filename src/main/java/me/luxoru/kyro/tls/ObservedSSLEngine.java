@@ -0,0 +1,242 @@
+package me.luxoru.kyro.tls;
+
+import me.luxoru.kyro.metrics.HandshakeMetrics;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * An {@link SSLEngine} that reports the handshakes of the engine it wraps to {@link HandshakeMetrics}.
+ * <p>
+ * The handshake clock starts with the first record the engine processes and stops when the engine reports
+ * {@link SSLEngineResult.HandshakeStatus#FINISHED}. A handshake counts as resumed when the negotiated session
+ * was created before the handshake started, which is the case whenever a cached session is reused.
+ * </p>
+ * <p>
+ * The wrapped engine may be driven by separate reading and writing threads, so the handshake state is
+ * guarded by this engine's monitor. Once the handshake has been recorded, records pass straight through
+ * without taking the monitor.
+ * </p>
+ *
+ * @author Luxoru
+ */
+class ObservedSSLEngine extends SSLEngine {
+
+    private final SSLEngine engine;
+    private final HandshakeMetrics metrics;
+
+    private long startedNanos;
+    private long startedMillis;
+    private volatile boolean completed;
+
+    ObservedSSLEngine(SSLEngine engine, HandshakeMetrics metrics) {
+        super(engine.getPeerHost(), engine.getPeerPort());
+        this.engine = engine;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+        if (completed) {
+            return engine.wrap(srcs, offset, length, dst);
+        }
+        markStarted();
+        try {
+            return observe(engine.wrap(srcs, offset, length, dst));
+        } catch (SSLException ex) {
+            markFailed();
+            throw ex;
+        }
+    }
+
+    @Override
+    public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+        if (completed) {
+            return engine.unwrap(src, dsts, offset, length);
+        }
+        markStarted();
+        try {
+            return observe(engine.unwrap(src, dsts, offset, length));
+        } catch (SSLException ex) {
+            markFailed();
+            throw ex;
+        }
+    }
+
+    private synchronized void markStarted() {
+        if (startedNanos == 0) {
+            startedNanos = System.nanoTime();
+            startedMillis = System.currentTimeMillis();
+        }
+    }
+
+    private synchronized void markFailed() {
+        if (!completed) {
+            completed = true;
+            metrics.recordFailure();
+        }
+    }
+
+    private synchronized SSLEngineResult observe(SSLEngineResult result) {
+        if (!completed && result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+            completed = true;
+            // Session creation times have millisecond precision, compare against the millisecond start
+            boolean resumed = engine.getSession().getCreationTime() < startedMillis;
+            metrics.recordHandshake(resumed, System.nanoTime() - startedNanos);
+        }
+        return result;
+    }
+
+    @Override
+    public Runnable getDelegatedTask() {
+        return engine.getDelegatedTask();
+    }
+
+    @Override
+    public void closeInbound() throws SSLException {
+        engine.closeInbound();
+    }
+
+    @Override
+    public boolean isInboundDone() {
+        return engine.isInboundDone();
+    }
+
+    @Override
+    public void closeOutbound() {
+        engine.closeOutbound();
+    }
+
+    @Override
+    public boolean isOutboundDone() {
+        return engine.isOutboundDone();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return engine.getSupportedCipherSuites();
+    }
+
+    @Override
+    public String[] getEnabledCipherSuites() {
+        return engine.getEnabledCipherSuites();
+    }
+
+    @Override
+    public void setEnabledCipherSuites(String[] suites) {
+        engine.setEnabledCipherSuites(suites);
+    }
+
+    @Override
+    public String[] getSupportedProtocols() {
+        return engine.getSupportedProtocols();
+    }
+
+    @Override
+    public String[] getEnabledProtocols() {
+        return engine.getEnabledProtocols();
+    }
+
+    @Override
+    public void setEnabledProtocols(String[] protocols) {
+        engine.setEnabledProtocols(protocols);
+    }
+
+    @Override
+    public SSLSession getSession() {
+        return engine.getSession();
+    }
+
+    @Override
+    public SSLSession getHandshakeSession() {
+        return engine.getHandshakeSession();
+    }
+
+    @Override
+    public void beginHandshake() throws SSLException {
+        markStarted();
+        engine.beginHandshake();
+    }
+
+    @Override
+    public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+        return engine.getHandshakeStatus();
+    }
+
+    @Override
+    public void setUseClientMode(boolean mode) {
+        engine.setUseClientMode(mode);
+    }
+
+    @Override
+    public boolean getUseClientMode() {
+        return engine.getUseClientMode();
+    }
+
+    @Override
+    public void setNeedClientAuth(boolean need) {
+        engine.setNeedClientAuth(need);
+    }
+
+    @Override
+    public boolean getNeedClientAuth() {
+        return engine.getNeedClientAuth();
+    }
+
+    @Override
+    public void setWantClientAuth(boolean want) {
+        engine.setWantClientAuth(want);
+    }
+
+    @Override
+    public boolean getWantClientAuth() {
+        return engine.getWantClientAuth();
+    }
+
+    @Override
+    public void setEnableSessionCreation(boolean flag) {
+        engine.setEnableSessionCreation(flag);
+    }
+
+    @Override
+    public boolean getEnableSessionCreation() {
+        return engine.getEnableSessionCreation();
+    }
+
+    @Override
+    public SSLParameters getSSLParameters() {
+        return engine.getSSLParameters();
+    }
+
+    @Override
+    public void setSSLParameters(SSLParameters params) {
+        engine.setSSLParameters(params);
+    }
+
+    @Override
+    public String getApplicationProtocol() {
+        return engine.getApplicationProtocol();
+    }
+
+    @Override
+    public String getHandshakeApplicationProtocol() {
+        return engine.getHandshakeApplicationProtocol();
+    }
+
+    @Override
+    public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+        engine.setHandshakeApplicationProtocolSelector(selector);
+    }
+
+    @Override
+    public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+        return engine.getHandshakeApplicationProtocolSelector();
+    }
+
+}
@@ -0,0 +1,44 @@
+package me.luxoru.kyro.tls;
+
+import lombok.experimental.UtilityClass;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+/**
+ * A utility class for setting up TLS.
+ *
+ * @author Luxoru
+ */
+@UtilityClass
+public class TlsUtils {
+
+    /**
+     * Creates an {@link SSLContext} serving the key and certificate chain of a key store.
+     * <p>
+     * The key store type (PKCS12 or JKS) is detected from the file. The key is expected to be protected
+     * with the same password as the key store.
+     * </p>
+     *
+     * @param keyStore the key store file
+     * @param password the password of the key store
+     * @return an initialized {@link SSLContext}
+     * @throws IOException if the key store cannot be read
+     * @throws GeneralSecurityException if the key store or its key cannot be loaded
+     */
+    public static SSLContext createContext(Path keyStore, char[] password) throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(keyStore.toFile(), password);
+
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(store, password);
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagerFactory.getKeyManagers(), null, null);
+        return context;
+    }
+
+}
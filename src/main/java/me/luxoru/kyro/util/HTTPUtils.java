@@ -1,8 +1,17 @@
 package me.luxoru.kyro.util;
 
 import lombok.experimental.UtilityClass;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -18,15 +27,32 @@ import java.util.Map;
 @UtilityClass
 public class HTTPUtils {
 
+    /**
+     * Formats IMF-fixdates, the only date format HTTP allows senders to generate.
+     */
+    private static final DateTimeFormatter HTTP_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    /**
+     * Parses RFC 1123 dates, which accepts IMF-fixdates as well as one-digit days sent by lenient clients.
+     */
+    private static final DateTimeFormatter HTTP_DATE_PARSER = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
     /**
      * Parses the query string from a URL and returns a map of parameter names to values.
      * <p>
      * The query string should be in the format "key1=value1&key2=value2". If the query string is null
      * or empty, an empty map is returned. Parameters without values are stored with an empty string as the value.
      * </p>
+     * <p>
+     * The query must still be percent-encoded, as returned by {@link java.net.URI#getRawQuery()}. It is split
+     * first and each name and value is decoded afterwards, so an encoded {@code &} or {@code =} stays part of
+     * its value. A {@code +} is kept as is.
+     * </p>
      *
-     * @param query the query string to be parsed, or {@code null} or empty to return an empty map
-     * @return a {@link Map} containing parameter names and their corresponding values
+     * @param query the raw query string to be parsed, or {@code null} or empty to return an empty map
+     * @return a {@link Map} containing the decoded parameter names and their corresponding values
      */
     public static Map<String, String> getParameters(String query) {
         if (query == null || (query = query.trim()).isEmpty()) {
@@ -34,13 +60,138 @@ public class HTTPUtils {
         }
         Map<String, String> parameters = new HashMap<>();
         for (String param : query.split("&")) {
-            String[] split = param.split("=");
+            String[] split = param.split("=", 2);
             if (split.length > 1) {
-                parameters.put(split[0], split[1]);
+                parameters.put(decode(split[0]), decode(split[1]));
             } else {
-                parameters.put(split[0], "");
+                parameters.put(decode(split[0]), "");
             }
         }
         return parameters;
     }
+
+    /**
+     * Decodes the percent escapes of a query component.
+     *
+     * @param component the raw component
+     * @return the decoded component, or the raw component if it holds a malformed escape
+     */
+    private static String decode(String component) {
+        try {
+            return URLDecoder.decode(component.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            return component;
+        }
+    }
+
+    /**
+     * Formats an instant as an HTTP date, e.g. {@code Tue, 03 Jun 2008 11:05:30 GMT}.
+     *
+     * @param instant the instant to format
+     * @return the formatted HTTP date
+     */
+    public static String formatDate(Instant instant) {
+        return HTTP_DATE_FORMAT.format(instant.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Parses an HTTP date as sent in headers such as {@code If-Modified-Since}.
+     *
+     * @param date the date to parse
+     * @return the parsed instant, or {@code null} if the date is missing or malformed
+     */
+    public static Instant parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return Instant.from(HTTP_DATE_PARSER.parse(date.trim()));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether an entity tag is listed in an {@code If-None-Match} header.
+     * <p>
+     * Tags are compared weakly, as required for {@code If-None-Match}, so {@code W/"abc"} matches
+     * {@code "abc"}. The wildcard {@code *} matches any entity tag.
+     * </p>
+     *
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, may be {@code null}
+     * @param entityTag the entity tag of the current response
+     * @return {@code true} if the client already holds the given entity tag
+     */
+    public static boolean matchesEntityTag(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(entityTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+
+    /**
+     * Gets a parameter of a header value such as {@code form-data; name="file"; filename="a.txt"}.
+     * <p>
+     * Parameter names are matched case-insensitively. Quoted values are unquoted and backslash escapes
+     * inside them are resolved.
+     * </p>
+     *
+     * @param headerValue the header value, may be {@code null}
+     * @param name the name of the parameter
+     * @return the parameter value, or {@code null} if the parameter is not present
+     */
+    public static String getHeaderParameter(String headerValue, String name) {
+        if (headerValue == null) {
+            return null;
+        }
+
+        int index = headerValue.indexOf(';');
+        while (index != -1 && index < headerValue.length()) {
+            int start = index + 1;
+            int equals = headerValue.indexOf('=', start);
+            if (equals == -1) {
+                return null;
+            }
+
+            String key = headerValue.substring(start, equals).trim();
+            StringBuilder value = new StringBuilder();
+            int position = equals + 1;
+
+            while (position < headerValue.length() && headerValue.charAt(position) == ' ') {
+                position++;
+            }
+
+            if (position < headerValue.length() && headerValue.charAt(position) == '"') {
+                position++;
+                while (position < headerValue.length() && headerValue.charAt(position) != '"') {
+                    char c = headerValue.charAt(position++);
+                    if (c == '\\' && position < headerValue.length()) {
+                        c = headerValue.charAt(position++);
+                    }
+                    value.append(c);
+                }
+                index = headerValue.indexOf(';', position);
+            } else {
+                int end = headerValue.indexOf(';', position);
+                value.append(headerValue, position, end == -1 ? headerValue.length() : end);
+                index = end;
+            }
+
+            if (key.equalsIgnoreCase(name)) {
+                return value.toString().trim();
+            }
+        }
+        return null;
+    }
 }
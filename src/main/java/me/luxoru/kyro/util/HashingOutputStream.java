@@ -0,0 +1,81 @@
+package me.luxoru.kyro.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link OutputStream} that computes a 64-bit FNV-1a hash of every byte written through it.
+ * <p>
+ * The hash is non-cryptographic and only intended to cheaply detect changes in content, for
+ * example to derive an {@code ETag} while a response body is being encoded.
+ * </p>
+ *
+ * @author Luxoru
+ */
+public class HashingOutputStream extends OutputStream {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final OutputStream delegate;
+    private long hash = FNV_OFFSET_BASIS;
+
+    /**
+     * Constructs a new hashing stream writing to the given stream.
+     *
+     * @param delegate the stream the bytes are written to
+     */
+    public HashingOutputStream(OutputStream delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        delegate.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long h = hash;
+        for (int i = off; i < off + len; i++) {
+            h = (h ^ (b[i] & 0xff)) * FNV_PRIME;
+        }
+        hash = h;
+        delegate.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * Computes the hash of the given bytes, as if they were written to a new hashing stream.
+     *
+     * @param bytes the bytes to hash
+     * @return the 64-bit FNV-1a hash
+     */
+    public static long hash(byte[] bytes) {
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Gets the hash of all bytes written so far.
+     *
+     * @return the 64-bit FNV-1a hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+}
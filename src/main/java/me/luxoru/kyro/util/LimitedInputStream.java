@@ -0,0 +1,69 @@
+package me.luxoru.kyro.util;
+
+import me.luxoru.kyro.request.PayloadTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link InputStream} that fails with a {@link PayloadTooLargeException} once more than a given number of
+ * bytes has been read from it.
+ *
+ * @author Luxoru
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long remaining;
+
+    /**
+     * Constructs a new limited stream.
+     *
+     * @param in the stream to read from
+     * @param limit the maximum number of bytes that may be read
+     */
+    public LimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+        this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1 && --remaining < 0) {
+            throw new PayloadTooLargeException(limit);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        // Ask for one byte more than allowed so an oversized body is detected without reading it all
+        int read = super.read(b, off, (int) Math.min(len, remaining + 1));
+        if (read > 0) {
+            remaining -= read;
+            if (remaining < 0) {
+                throw new PayloadTooLargeException(limit);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, remaining + 1));
+        remaining -= skipped;
+        if (remaining < 0) {
+            throw new PayloadTooLargeException(limit);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+}
@@ -0,0 +1,158 @@
+package me.luxoru.kyro;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.util.HTTPUtils;
+import me.luxoru.kyro.util.HashingOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ConditionalGetTest {
+
+    private static final int PORT = 8087;
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T10:15:30Z");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger serialized = new AtomicInteger();
+
+    private Kyro kyro;
+
+    @BeforeEach
+    public void setUp() {
+        kyro = new KyroBuilder(PORT)
+                .addRoute(new ConditionalRoute())
+                .setGson(new GsonBuilder()
+                        .registerTypeAdapter(Item.class, (JsonSerializer<Item>) (item, type, context) -> {
+                            serialized.incrementAndGet();
+                            return new JsonPrimitive(item.name);
+                        })
+                        .create())
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testHashEntityTag() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("/conditional/hashed", null, null);
+        String entityTag = response.headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(200, response.statusCode());
+        assertEquals("\"" + Long.toHexString(hash(response.body())) + "\"", entityTag);
+
+        assertEquals(304, send("/conditional/hashed", "If-None-Match", entityTag).statusCode());
+        assertEquals(304, send("/conditional/hashed", "If-None-Match", "W/" + entityTag).statusCode());
+        assertEquals(304, send("/conditional/hashed", "If-None-Match", "\"other\", " + entityTag).statusCode());
+        assertEquals(304, send("/conditional/hashed", "If-None-Match", "*").statusCode());
+
+        response = send("/conditional/hashed", "If-None-Match", "\"other\"");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"success\":true,\"value\":\"hashed\"}", response.body());
+    }
+
+    @Test
+    public void testIfModifiedSinceFallback() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("/conditional/dated", null, null);
+        assertEquals(HTTPUtils.formatDate(LAST_MODIFIED), response.headers().firstValue("Last-Modified").orElseThrow());
+
+        assertEquals(304, send("/conditional/dated", "If-Modified-Since", HTTPUtils.formatDate(LAST_MODIFIED)).statusCode());
+        assertEquals(304, send("/conditional/dated", "If-Modified-Since",
+                HTTPUtils.formatDate(LAST_MODIFIED.plusSeconds(60))).statusCode());
+        assertEquals(200, send("/conditional/dated", "If-Modified-Since",
+                HTTPUtils.formatDate(LAST_MODIFIED.minusSeconds(1))).statusCode());
+        assertEquals(200, send("/conditional/dated", "If-Modified-Since", "yesterday").statusCode());
+
+        // If-None-Match takes precedence over If-Modified-Since
+        HttpResponse<String> mismatched = client.send(request("/conditional/dated")
+                .header("If-None-Match", "\"other\"")
+                .header("If-Modified-Since", HTTPUtils.formatDate(LAST_MODIFIED))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, mismatched.statusCode());
+    }
+
+    @Test
+    public void testVersionSkipsSerialization() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("/conditional/versioned", null, null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("\"v1\"", response.headers().firstValue("ETag").orElseThrow());
+        assertEquals(1, serialized.get());
+
+        response = send("/conditional/versioned", "If-None-Match", "\"v1\"");
+        assertEquals(304, response.statusCode());
+        assertEquals("", response.body());
+        assertEquals("\"v1\"", response.headers().firstValue("ETag").orElseThrow());
+        assertEquals(1, serialized.get());
+
+        assertEquals(200, send("/conditional/versioned", "If-None-Match", "\"v0\"").statusCode());
+        assertEquals(2, serialized.get());
+    }
+
+    private HttpResponse<String> send(String path, String header, String value) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(path);
+        if (header != null) {
+            request.header(header, value);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path));
+    }
+
+    private static long hash(String body) throws IOException {
+        HashingOutputStream hash = new HashingOutputStream(OutputStream.nullOutputStream());
+        hash.write(body.getBytes(StandardCharsets.UTF_8));
+        return hash.getHash();
+    }
+
+    private record Item(String name) {
+    }
+
+    @Route(path = "/conditional")
+    public static class ConditionalRoute {
+
+        @RestPath(path = "/hashed", method = RequestMethod.GET)
+        public String hashed(Request request, Response response) {
+            return "hashed";
+        }
+
+        @RestPath(path = "/dated", method = RequestMethod.GET)
+        public String dated(Request request, Response response) {
+            response.setLastModified(LAST_MODIFIED);
+            return "dated";
+        }
+
+        @RestPath(path = "/versioned", method = RequestMethod.GET)
+        public Item versioned(Request request, Response response) {
+            response.setVersion("v1");
+            return new Item("versioned");
+        }
+
+    }
+
+}
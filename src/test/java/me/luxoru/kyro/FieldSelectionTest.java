@@ -0,0 +1,121 @@
+package me.luxoru.kyro;
+
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.request.Projection;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class FieldSelectionTest {
+
+    private static final int PORT = 8088;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private Kyro kyro;
+
+    @BeforeEach
+    public void setUp() {
+        kyro = new KyroBuilder(PORT)
+                .addRoute(new AccountRoute())
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testSelectionIsLimitedToProjection() throws IOException, InterruptedException {
+        assertEquals("{\"success\":true,\"value\":{\"name\":\"Des\",\"address\":{\"city\":\"Leeds\",\"zip\":\"LS1\"}}}",
+                send("/account/projected", null).body());
+        assertEquals("{\"success\":true,\"value\":{\"address\":{\"city\":\"Leeds\"}}}",
+                send("/account/projected?fields=address.city,passwordHash", null).body());
+        assertEquals("{\"success\":true,\"value\":{\"name\":\"Des\",\"passwordHash\":\"secret\"}}",
+                send("/account/plain?fields=name,passwordHash", null).body());
+    }
+
+    @Test
+    public void testMalformedSelection() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("/account/plain?fields=address(city", null);
+
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"success\":false,\"error\":\"Invalid field selection at position 12: missing ')'\"}", response.body());
+    }
+
+    @Test
+    public void testVersionEntityTagDependsOnSelection() throws IOException, InterruptedException {
+        String plain = entityTag(send("/account/plain", null));
+        String name = entityTag(send("/account/plain?fields=name", null));
+        String address = entityTag(send("/account/plain?fields=address", null));
+
+        assertEquals("\"v1\"", plain);
+        assertNotEquals(plain, name);
+        assertNotEquals(name, address);
+        assertEquals(name, entityTag(send("/account/plain?fields=name", null)));
+
+        assertEquals(304, send("/account/plain?fields=name", name).statusCode());
+        assertEquals(200, send("/account/plain?fields=address", name).statusCode());
+        assertEquals(200, send("/account/plain", name).statusCode());
+
+        // The projection of the route is a selection too
+        String projected = entityTag(send("/account/projected", null));
+        assertNotEquals(plain, projected);
+        assertEquals(304, send("/account/projected", projected).statusCode());
+    }
+
+    private HttpResponse<String> send(String path, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String entityTag(HttpResponse<String> response) {
+        return response.headers().firstValue("ETag").orElseThrow();
+    }
+
+    private record Address(String city, String zip) {
+    }
+
+    private record Account(String name, String passwordHash, Address address) {
+    }
+
+    @Route(path = "/account")
+    public static class AccountRoute {
+
+        private final Account account = new Account("Des", "secret", new Address("Leeds", "LS1"));
+
+        @RestPath(path = "/plain", method = RequestMethod.GET)
+        public Account plain(Request request, Response response) {
+            response.setVersion("v1");
+            return account;
+        }
+
+        @Projection("name,address(city,zip)")
+        @RestPath(path = "/projected", method = RequestMethod.GET)
+        public Account projected(Request request, Response response) {
+            response.setVersion("v1");
+            return account;
+        }
+
+    }
+
+}
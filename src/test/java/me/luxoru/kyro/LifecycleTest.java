@@ -0,0 +1,128 @@
+package me.luxoru.kyro;
+
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LifecycleTest {
+
+    private static final int PORT = 8089;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final WarmupRoute route = new WarmupRoute();
+
+    private Kyro kyro;
+
+    @AfterEach
+    public void tearDown() {
+        route.release.countDown();
+        if (kyro != null && kyro.isRunning()) {
+            kyro.cleanup();
+        }
+    }
+
+    @Test
+    public void testNotReadyWhileWarmingUp() throws Exception {
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .setReadinessPath("/ready")
+                .enableWarmup(2)
+                .addWarmupRequest(RequestMethod.GET, "/warmup/blocking")
+                .build();
+
+        Thread starter = Thread.ofPlatform().start(kyro::start);
+        route.warmingUp.await();
+
+        assertEquals(503, send("/ready").statusCode());
+        assertFalse(kyro.isReady());
+
+        route.release.countDown();
+        starter.join();
+
+        assertEquals(200, send("/ready").statusCode());
+        assertTrue(kyro.isReady());
+        assertEquals(List.of(true, true), route.warmup);
+
+        send("/warmup/blocking");
+        assertEquals(List.of(true, true, false), route.warmup);
+    }
+
+    @Test
+    public void testRoutesAreNotWarmedUpUnlessListed() throws Exception {
+        route.release.countDown();
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .enableWarmup(5)
+                .build();
+        kyro.start();
+
+        assertTrue(route.warmup.isEmpty());
+    }
+
+    @Test
+    public void testNotReadyWhileDraining() throws Exception {
+        route.release.countDown();
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .setReadinessPath("/ready")
+                .setShutdownDrainDelay(1_000)
+                .build();
+        kyro.start();
+        assertEquals(200, send("/ready").statusCode());
+
+        Thread stopper = Thread.ofPlatform().start(kyro::cleanup);
+        while (kyro.isReady()) {
+            Thread.sleep(1);
+        }
+
+        // Routes are still served while the probe takes the server out of rotation
+        assertEquals(503, send("/ready").statusCode());
+        assertEquals(200, send("/warmup/blocking").statusCode());
+
+        stopper.join();
+        assertFalse(kyro.isRunning());
+    }
+
+    private HttpResponse<String> send(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Route(path = "/warmup")
+    public static class WarmupRoute {
+
+        private final List<Boolean> warmup = new CopyOnWriteArrayList<>();
+        private final CountDownLatch warmingUp = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @RestPath(path = "/blocking", method = RequestMethod.GET)
+        public String blocking(Request request, Response response) throws InterruptedException {
+            warmup.add(request.isWarmup());
+            if (request.isWarmup()) {
+                warmingUp.countDown();
+                release.await();
+            }
+            return "done";
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package me.luxoru.kyro.capture;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.util.HashingOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrafficLogTest {
+
+    private static final int PORT = 8084;
+
+    private Path logFile;
+    private Kyro kyro;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("kyro-", ".capture");
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(new CaptureRoute())
+                .enableCapture(CaptureSettings.of(logFile).withMaxBytes(1024 * 1024))
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (kyro != null) {
+            kyro.cleanup();
+        }
+        Files.deleteIfExists(logFile);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<byte[]> echoed = client.send(HttpRequest.newBuilder(uri("/capture/echo?name=Des"))
+                .header("Authorization", "Bearer secret")
+                .header("X-Trace", "trace-1")
+                .POST(HttpRequest.BodyPublishers.ofString("hello"))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        client.send(HttpRequest.newBuilder(uri("/capture/ignore"))
+                .POST(HttpRequest.BodyPublishers.ofString("unread"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        stop();
+
+        List<CapturedRequest> requests = TrafficLog.read(logFile);
+        assertEquals(2, requests.size());
+
+        CapturedRequest echo = find(requests, "/capture/echo?name=Des");
+        assertEquals("POST", echo.method());
+        assertEquals(200, echo.responseCode());
+        assertEquals(hash(echoed.body()), echo.responseHash());
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), echo.body());
+        assertFalse(echo.bodyTruncated());
+        assertTrue(echo.offsetNanos() >= 0 && echo.durationNanos() > 0);
+
+        CapturedRequest ignored = find(requests, "/capture/ignore");
+        assertEquals(0, ignored.body().length);
+        assertTrue(ignored.bodyTruncated());
+    }
+
+    @Test
+    public void testRedactedHeadersAreMarked() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        client.send(HttpRequest.newBuilder(uri("/capture/echo"))
+                .header("Authorization", "Bearer secret")
+                .header("Cookie", "session=a")
+                .header("X-Trace", "trace-1")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        stop();
+
+        CapturedRequest request = TrafficLog.read(logFile).get(0);
+        assertEquals(List.of("authorization", "cookie"),
+                request.redactedHeaders().stream().map(String::toLowerCase).sorted().toList());
+        for (Map.Entry<String, String> header : request.headers()) {
+            assertFalse(header.getKey().equalsIgnoreCase("Authorization") || header.getKey().equalsIgnoreCase("Cookie"));
+        }
+        assertTrue(request.headers().stream()
+                .anyMatch(header -> header.getKey().equalsIgnoreCase("X-Trace") && header.getValue().equals("trace-1")));
+        assertFalse(new String(Files.readAllBytes(logFile), StandardCharsets.UTF_8).contains("secret"));
+    }
+
+    @Test
+    public void testRejectsOtherVersions() throws IOException {
+        stop();
+
+        byte[] bytes = Files.readAllBytes(logFile);
+        bytes[Integer.BYTES + 1] = (byte) (TrafficLog.VERSION - 1);
+        Files.write(logFile, bytes);
+
+        IOException ex = assertThrows(IOException.class, () -> TrafficLog.read(logFile));
+        assertEquals("Unsupported capture log version %d".formatted(TrafficLog.VERSION - 1), ex.getMessage());
+    }
+
+    /**
+     * Stops the server, which flushes the capture log.
+     */
+    private void stop() {
+        kyro.cleanup();
+        kyro = null;
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + PORT + path);
+    }
+
+    private static CapturedRequest find(List<CapturedRequest> requests, String uri) {
+        return requests.stream().filter(request -> request.uri().equals(uri)).findFirst().orElseThrow();
+    }
+
+    private static long hash(byte[] bytes) throws IOException {
+        HashingOutputStream hash = new HashingOutputStream(OutputStream.nullOutputStream());
+        hash.write(bytes);
+        return hash.getHash();
+    }
+
+    @Route(path = "/capture")
+    public static class CaptureRoute {
+
+        @RestPath(path = "/echo", method = RequestMethod.POST)
+        public String echo(Request request, Response response) throws IOException {
+            try (InputStream in = Channels.newInputStream(request.getBodyChannel())) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+
+        @RestPath(path = "/ignore", method = RequestMethod.POST)
+        public String ignore(Request request, Response response) {
+            return "ignored";
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package me.luxoru.kyro.capture;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import me.luxoru.kyro.util.HashingOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrafficReplayerTest {
+
+    private static final int PORT = 8085;
+    private static final long MILLIS = 1_000_000;
+
+    private Kyro kyro;
+    private OrderRoute route;
+
+    @BeforeEach
+    public void setUp() {
+        route = new OrderRoute();
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testReplaysInArrivalOrder() throws Exception {
+        // Logs hold requests in the order they completed, here the slowest request arrived first
+        List<CapturedRequest> requests = List.of(
+                captured(1_000 * MILLIS, "b"),
+                captured(1_100 * MILLIS, "c"),
+                captured(900 * MILLIS, "a"));
+
+        long startedNanos = System.nanoTime();
+        ReplayResult result = new TrafficReplayer(URI.create("http://localhost:" + PORT), 1).replay(requests);
+        long elapsedMillis = (System.nanoTime() - startedNanos) / MILLIS;
+
+        assertEquals(List.of("a", "b", "c"), route.arrivals);
+        // Paced from the earliest arrival, not from the first record of the log
+        assertTrue(elapsedMillis >= 200 && elapsedMillis < 900, "Replayed in " + elapsedMillis + " ms");
+
+        List<ReplayResult.Sample> samples = result.samples();
+        assertEquals(3, samples.size());
+        assertEquals(hash("b"), samples.get(0).responseHash());
+        assertEquals(hash("c"), samples.get(1).responseHash());
+        assertEquals(hash("a"), samples.get(2).responseHash());
+    }
+
+    @Test
+    public void testParseArguments() {
+        TrafficReplayer.Arguments arguments = TrafficReplayer.Arguments.parse(new String[]{
+                "capture.log", "http://localhost:8080", "--speed", "max", "--save", "result.txt",
+                "--header", "Authorization=Bearer test"});
+
+        assertEquals(Path.of("capture.log"), arguments.logFile());
+        assertEquals(URI.create("http://localhost:8080"), arguments.baseUri());
+        assertEquals(Double.POSITIVE_INFINITY, arguments.speed());
+        assertEquals(Path.of("result.txt"), arguments.saveFile());
+        assertNull(arguments.baselineFile());
+        assertEquals(Map.of("Authorization", "Bearer test"), arguments.substituteHeaders());
+
+        assertEquals(1, TrafficReplayer.Arguments.parse(new String[]{"capture.log", "http://localhost:8080"}).speed());
+    }
+
+    @Test
+    public void testMalformedArgumentsAreRejected() {
+        assertRejected("Expected a capture log and a base URL", "capture.log");
+        assertRejected("Missing value after --baseline", "capture.log", "http://localhost:8080", "--speed", "2", "--baseline");
+        assertRejected("Unknown option --sped", "capture.log", "http://localhost:8080", "--sped", "2");
+        assertRejected("Expected a number or max after --speed, got fast", "capture.log", "http://localhost:8080", "--speed", "fast");
+        assertRejected("Expected <name>=<value> after --header, got Authorization", "capture.log", "http://localhost:8080",
+                "--header", "Authorization");
+    }
+
+    private static void assertRejected(String message, String... args) {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> TrafficReplayer.Arguments.parse(args));
+        assertEquals(message, ex.getMessage());
+    }
+
+    private static CapturedRequest captured(long offsetNanos, String name) {
+        return new CapturedRequest(offsetNanos, MILLIS, 200, hash(name), "GET", "/replay/order?name=" + name,
+                List.of(), List.of(), new byte[0], false);
+    }
+
+    private static long hash(String name) {
+        HashingOutputStream hash = new HashingOutputStream(OutputStream.nullOutputStream());
+        try {
+            hash.write("{\"success\":true,\"value\":\"%s\"}".formatted(name).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return hash.getHash();
+    }
+
+    @Route(path = "/replay")
+    public static class OrderRoute {
+
+        private final List<String> arrivals = new CopyOnWriteArrayList<>();
+
+        @RestPath(path = "/order", method = RequestMethod.GET)
+        public String order(Request request, Response response) {
+            String name = request.getParameter("name");
+            arrivals.add(name);
+            return name;
+        }
+
+    }
+
+}
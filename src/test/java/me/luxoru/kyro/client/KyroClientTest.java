@@ -0,0 +1,99 @@
+package me.luxoru.kyro.client;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.user.client.UserClient;
+import me.luxoru.kyro.user.data.User;
+import me.luxoru.kyro.user.data.UserContainer;
+import me.luxoru.kyro.user.route.UserFetchRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KyroClientTest {
+
+    private static final int PORT = 8081;
+
+    private Kyro kyro;
+    private UserClient client;
+
+    @BeforeEach
+    public void setUp() {
+        UserContainer container = new UserContainer();
+
+        container.addUser(new User("Des", 32));
+        container.addUser(new User("Maria", 21));
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(new UserFetchRoute(container))
+                .setExecutor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        kyro.start();
+
+        client = new KyroClient.KyroClientBuilder(URI.create("http://localhost:" + PORT))
+                .setCoalescing(true)
+                .build()
+                .create(UserClient.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testBlockingCall() {
+        User user = client.fetchUser("Des");
+
+        assertEquals("Des", user.getName());
+        assertEquals(32, user.getAge());
+        assertNull(client.fetchUser("Nobody"));
+    }
+
+    @Test
+    public void testAsyncCalls() {
+        client.insert("Preston", 23);
+
+        List<CompletableFuture<User>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(client.fetchUserAsync("Preston"));
+        }
+
+        for (CompletableFuture<User> future : futures) {
+            assertEquals(23, future.join().getAge());
+        }
+        assertEquals(3, client.getUsers().join().size());
+    }
+
+    @Test
+    public void testParameterEncoding() {
+        client.insert("Mary Ann+Jo", 40);
+
+        assertEquals(40, client.fetchUser("Mary Ann+Jo").getAge());
+        assertNull(client.fetchUser("Mary+Ann+Jo"));
+
+        // Decoding the whole query before splitting it would read this as two parameters
+        client.insert("a&b=c", 41);
+
+        assertEquals(41, client.fetchUser("a&b=c").getAge());
+        assertNull(client.fetchUser("a"));
+    }
+
+    @Test
+    public void testFailedCall() {
+        KyroClientException ex = assertThrows(KyroClientException.class, client::missing);
+
+        assertEquals(404, ex.getResponseCode());
+    }
+
+}
@@ -0,0 +1,52 @@
+package me.luxoru.kyro.file;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ByteRangeTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    public void testClosedRange() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", SIZE));
+        assertEquals(100, ByteRange.parse("bytes=0-99", SIZE).length());
+        // The end is clamped to the last byte of the file
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-5000", SIZE));
+    }
+
+    @Test
+    public void testOpenEndedRange() {
+        assertEquals(new ByteRange(100, 999), ByteRange.parse("bytes=100-", SIZE));
+        assertEquals(new ByteRange(999, 999), ByteRange.parse("bytes=999-", SIZE));
+    }
+
+    @Test
+    public void testSuffixRange() {
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", SIZE));
+        // A suffix longer than the file selects the whole file
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", SIZE));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", SIZE));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-2000", SIZE));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", SIZE));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-100", 0));
+    }
+
+    @Test
+    public void testIgnoredRange() {
+        assertNull(ByteRange.parse(null, SIZE));
+        assertNull(ByteRange.parse("bytes=0-99,200-299", SIZE));
+        assertNull(ByteRange.parse("items=0-99", SIZE));
+        assertNull(ByteRange.parse("bytes=99-0", SIZE));
+        assertNull(ByteRange.parse("bytes=abc-", SIZE));
+        assertNull(ByteRange.parse("bytes=100", SIZE));
+    }
+
+}
@@ -0,0 +1,125 @@
+package me.luxoru.kyro.file;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileSenderTest {
+
+    private static final int PORT = 8086;
+    private static final String CONTENT = "0123456789".repeat(10);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private Path root;
+    private Kyro kyro;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("kyro-static-");
+        Path served = Files.createDirectory(root.resolve("served"));
+        Files.writeString(served.resolve("numbers.txt"), CONTENT);
+        Files.writeString(root.resolve("secret.txt"), "secret");
+
+        kyro = new KyroBuilder(PORT)
+                .addStaticDirectory("/static", served)
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        kyro.cleanup();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testPartialContent() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/static/numbers.txt").header("Range", "bytes=10-19"));
+
+        assertEquals(206, response.statusCode());
+        assertEquals("0123456789", response.body());
+        assertEquals("bytes 10-19/100", response.headers().firstValue("Content-Range").orElseThrow());
+
+        response = send(request("/static/numbers.txt").header("Range", "bytes=-5"));
+        assertEquals(206, response.statusCode());
+        assertEquals("56789", response.body());
+    }
+
+    @Test
+    public void testRangeNotSatisfiable() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/static/numbers.txt").header("Range", "bytes=100-"));
+
+        assertEquals(416, response.statusCode());
+        assertEquals("bytes */100", response.headers().firstValue("Content-Range").orElseThrow());
+    }
+
+    @Test
+    public void testStaleIfRangeSendsWholeFile() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/static/numbers.txt")
+                .header("Range", "bytes=10-19")
+                .header("If-Range", "\"stale\""));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(CONTENT, response.body());
+    }
+
+    @Test
+    public void testHead() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/static/numbers.txt")
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("", response.body());
+        assertEquals("100", response.headers().firstValue("Content-Length").orElseThrow());
+        assertEquals("bytes", response.headers().firstValue("Accept-Ranges").orElseThrow());
+    }
+
+    @Test
+    public void testPathTraversal() throws IOException, InterruptedException {
+        assertEquals(404, send(request("/static/%2e%2e/secret.txt")).statusCode());
+        assertEquals(404, send(request("/static/..%2fsecret.txt")).statusCode());
+        assertEquals(200, send(request("/static/numbers.txt")).statusCode());
+    }
+
+    @Test
+    public void testSymbolicLinkOutsideDirectory() throws IOException, InterruptedException {
+        Path served = root.resolve("served");
+        try {
+            Files.createSymbolicLink(served.resolve("link.txt"), root.resolve("secret.txt"));
+            Files.createSymbolicLink(served.resolve("inner.txt"), served.resolve("numbers.txt"));
+        } catch (UnsupportedOperationException ex) {
+            return;
+        }
+
+        assertEquals(404, send(request("/static/link.txt")).statusCode());
+        assertEquals(200, send(request("/static/inner.txt")).statusCode());
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+}
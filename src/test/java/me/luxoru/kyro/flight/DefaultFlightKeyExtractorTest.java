@@ -0,0 +1,40 @@
+package me.luxoru.kyro.flight;
+
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.StubExchange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class DefaultFlightKeyExtractorTest {
+
+    private final DefaultFlightKeyExtractor extractor = new DefaultFlightKeyExtractor();
+
+    @Test
+    public void testCredentialsSeparateKeys() {
+        assertNotEquals(key("/v1/user?name=Des", "Authorization", "Bearer alice"),
+                key("/v1/user?name=Des", "Authorization", "Bearer bob"));
+        assertNotEquals(key("/v1/user?name=Des", "Cookie", "session=alice"),
+                key("/v1/user?name=Des", "Cookie", "session=bob"));
+        assertNotEquals(key("/v1/user?name=Des", "Authorization", "Bearer alice"),
+                key("/v1/user?name=Des", null, null));
+    }
+
+    @Test
+    public void testEquivalentRequestsShareKeys() {
+        assertEquals(key("/v1/user?name=Des&age=32", "Authorization", "Bearer alice"),
+                key("/v1/user?age=32&name=Des", "Authorization", "Bearer alice"));
+        assertEquals(key("/v1/user?name=Des", "Accept", "application/json"), key("/v1/user?name=Des", null, null));
+        assertNotEquals(key("/v1/user?name=Des", null, null), key("/v1/user?name=Maria", null, null));
+    }
+
+    private String key(String uri, String header, String value) {
+        StubExchange exchange = new StubExchange(uri);
+        if (header != null) {
+            exchange.getRequestHeaders().add(header, value);
+        }
+        return extractor.extract(new Request(exchange));
+    }
+
+}
@@ -0,0 +1,236 @@
+package me.luxoru.kyro.flight;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.metrics.RouteMetrics;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+    private static final int PORT = 8091;
+    private static final long TIMEOUT_MILLIS = 100;
+
+    private final FlightRoute route = new FlightRoute();
+
+    private Kyro kyro;
+
+    @AfterEach
+    public void tearDown() {
+        route.release.countDown();
+        if (kyro != null) {
+            kyro.cleanup();
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneCall() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = callConcurrently(singleFlight, release, () -> {
+            calls.incrementAndGet();
+            release.await();
+            return "value";
+        });
+
+        assertEquals(1, calls.get());
+        for (Object result : results) {
+            assertEquals("value", result);
+        }
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    public void testFailureReachesAllWaitersAndIsNotCached() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = callConcurrently(singleFlight, release, () -> {
+            calls.incrementAndGet();
+            release.await();
+            throw new IOException("backend down");
+        });
+
+        assertEquals(1, calls.get());
+        for (Object result : results) {
+            assertEquals("backend down", assertInstanceOf(IOException.class, result).getMessage());
+        }
+        assertEquals(0, singleFlight.inFlight());
+
+        assertEquals("recovered", singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return "recovered";
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testWaitingIsBoundedByTimeout() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread leader = Thread.ofPlatform().start(() -> {
+            try {
+                singleFlight.execute("key", () -> {
+                    started.countDown();
+                    release.await();
+                    return "value";
+                });
+            } catch (Exception ignored) {
+            }
+        });
+        started.await();
+
+        assertThrows(TimeoutException.class, () -> singleFlight.execute("key", Duration.ofMillis(50), () -> "own call"));
+
+        // Giving up leaves the call in flight for everyone else
+        assertEquals(1, singleFlight.inFlight());
+        release.countDown();
+        leader.join();
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneHandlerCall() throws Exception {
+        kyro = start();
+        RouteMetrics metrics = kyro.getMetrics().getRoute("GET /flight/value");
+
+        List<CompletableFuture<HttpResponse<String>>> futures = sendConcurrently("/flight/value?id=1");
+        while (metrics.getRequests() < CALLERS) {
+            Thread.sleep(1);
+        }
+        // Give the last requests time to join the call in flight
+        Thread.sleep(100);
+        route.release.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            HttpResponse<String> response = future.join();
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"success\":true,\"value\":\"value 1\"}", response.body());
+        }
+        assertEquals(1, route.calls.get());
+    }
+
+    @Test
+    public void testWaitingRequestsAreAnsweredAtTheDeadline() throws Exception {
+        kyro = start();
+
+        long startedNanos = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> futures = sendConcurrently("/flight/stuck");
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            assertEquals(504, future.join().statusCode());
+        }
+        long elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+
+        assertTrue(elapsedMillis < TIMEOUT_MILLIS * 5, "Answered after " + elapsedMillis + " ms");
+        assertTrue(route.calls.get() < CALLERS, "Every request called the handler");
+    }
+
+    private Kyro start() {
+        Kyro kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .setExecutor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        kyro.start();
+        return kyro;
+    }
+
+    private static List<CompletableFuture<HttpResponse<String>>> sendConcurrently(String path) {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path)).build();
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        return futures;
+    }
+
+    /**
+     * Calls the single flight with the same key from several threads and opens the latch once every caller
+     * is blocked, either in the call or waiting for its result.
+     *
+     * @return the value returned to, or the exception thrown at, every caller
+     */
+    private static List<Object> callConcurrently(SingleFlight<String> singleFlight, CountDownLatch release,
+                                                 Callable<String> call) throws InterruptedException {
+        Object[] results = new Object[CALLERS];
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < CALLERS; i++) {
+            int index = i;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    results[index] = singleFlight.execute("key", call);
+                } catch (Exception ex) {
+                    results[index] = ex;
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return List.of(results);
+    }
+
+    @Route(path = "/flight")
+    public static class FlightRoute {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @RestPath(path = "/value", method = RequestMethod.GET, singleFlight = true)
+        public String value(Request request, Response response) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            return "value " + request.getParameter("id");
+        }
+
+        @RestPath(path = "/stuck", method = RequestMethod.GET, singleFlight = true, timeout = TIMEOUT_MILLIS)
+        public String stuck(Request request, Response response) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            return "done";
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package me.luxoru.kyro.lane;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.metrics.LaneMetrics;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LaneTimeoutTest {
+
+    private static final int PORT = 8082;
+    private static final int MAX_CONCURRENCY = 2;
+
+    private Kyro kyro;
+    private StubbornRoute route;
+
+    @BeforeEach
+    public void setUp() {
+        route = new StubbornRoute();
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .addLane(LaneSettings.virtual("slow", MAX_CONCURRENCY, 32))
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testTimedOutHandlersKeepTheirSlot() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/slow/work")).build();
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // The first clients are answered at the deadline, while their handlers still hold the slots
+        CompletableFuture.anyOf(futures.toArray(CompletableFuture[]::new)).join();
+        LaneMetrics metrics = kyro.getMetrics().getLane("slow");
+        // Read in this order, handlers stop running before they give up their slot
+        long active = metrics.getActive();
+        int running = route.running.get();
+        assertTrue(running > 0, "Clients were answered only after the handlers returned");
+        assertTrue(active >= running, "Handlers running without a slot: " + (running - active));
+
+        for (CompletableFuture<HttpResponse<String>> future : futures) {
+            assertEquals(504, future.join().statusCode());
+        }
+
+        assertTrue(route.peakRunning.get() <= MAX_CONCURRENCY, "Handlers running at once: " + route.peakRunning.get());
+        assertTrue(metrics.getPeakActive() <= MAX_CONCURRENCY);
+
+        // The slots are released once the handlers return
+        long end = System.nanoTime() + 2_000_000_000L;
+        while (metrics.getActive() > 0 && System.nanoTime() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, metrics.getActive());
+        assertEquals(0, route.running.get());
+    }
+
+    @Route(path = "/slow", lane = "slow")
+    public static class StubbornRoute {
+
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger peakRunning = new AtomicInteger();
+
+        @RestPath(path = "/work", method = RequestMethod.GET, timeout = 50)
+        public String work(Request request, Response response) {
+            peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // Ignores interrupts, like handlers blocked in code that swallows them
+                long end = System.nanoTime() + 500_000_000L;
+                while (System.nanoTime() < end) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                return "done";
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package me.luxoru.kyro.projection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FieldTreeTest {
+
+    @Test
+    public void testNestedSelections() {
+        FieldTree tree = FieldTree.parse("name, address.city ,orders(id,total)");
+
+        assertTrue(tree.get("name").isAll());
+        assertEquals("city", tree.get("address").toString());
+        assertEquals("id,total", tree.get("orders").toString());
+        assertNull(tree.get("email"));
+        assertEquals("name,address(city),orders(id,total)", tree.toString());
+    }
+
+    @Test
+    public void testSelectionsAreMerged() {
+        assertEquals("address(city,zip)", FieldTree.parse("address.city,address.zip").toString());
+        // Selecting the whole value wins over a selection of its fields
+        assertEquals("address", FieldTree.parse("address.city,address").toString());
+        assertEquals("address", FieldTree.parse("address,address(city)").toString());
+    }
+
+    @Test
+    public void testMalformedSelections() {
+        assertInvalid("", "Invalid field selection at position 0: expected a field name");
+        assertInvalid("name,", "Invalid field selection at position 5: expected a field name");
+        assertInvalid("address(city", "Invalid field selection at position 12: missing ')'");
+        assertInvalid("name)", "Invalid field selection at position 4: unexpected ')'");
+        assertInvalid("address.", "Invalid field selection at position 8: expected a field name");
+        assertInvalid("na me", "Invalid field selection at position 3: unexpected 'm'");
+    }
+
+    @Test
+    public void testLimits() {
+        assertInvalid("a".repeat(4097), "Field selection is longer than 4096 characters");
+        FieldTree.parse("a".repeat(4096));
+
+        assertThrows(IllegalArgumentException.class, () -> FieldTree.parse("a.".repeat(40) + "a"));
+        assertThrows(IllegalArgumentException.class, () -> FieldTree.parse("a(".repeat(40) + "a" + ")".repeat(40)));
+        FieldTree.parse("a.".repeat(30) + "a");
+    }
+
+    @Test
+    public void testIntersect() {
+        FieldTree projection = FieldTree.parse("name,address(city,zip)");
+
+        assertEquals("name,address(city)", projection.intersect(FieldTree.parse("name,address.city,passwordHash")).toString());
+        assertEquals("address(city,zip)", projection.intersect(FieldTree.parse("address")).toString());
+        assertEquals("", projection.intersect(FieldTree.parse("passwordHash")).toString());
+        assertSame(projection, projection.intersect(FieldTree.ALL));
+        assertSame(projection, FieldTree.ALL.intersect(projection));
+    }
+
+    private static void assertInvalid(String fields, String message) {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> FieldTree.parse(fields));
+        assertEquals(message, ex.getMessage());
+    }
+
+}
@@ -0,0 +1,155 @@
+package me.luxoru.kyro.projection;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ProjectorTest {
+
+    @Test
+    public void testExcludedFieldCannotBeSelected() {
+        Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+        Projector projector = new Projector(gson);
+
+        JsonObject expected = new JsonObject();
+        expected.addProperty("name", "Des");
+
+        assertEquals(expected, projector.toJsonTree(new Account("Des", "secret"), projector.parse("name,passwordHash")));
+        assertEquals(new JsonObject(), projector.toJsonTree(new Account("Des", "secret"), projector.parse("passwordHash")));
+    }
+
+    @Test
+    public void testSerializedNames() {
+        Projector projector = new Projector(new Gson());
+
+        JsonObject expected = new JsonObject();
+        expected.addProperty("display_name", "Des");
+
+        assertEquals(expected, projector.toJsonTree(new Profile("Des", 32), projector.parse("display_name,displayName")));
+    }
+
+    @Test
+    public void testCustomSerializerIsProjected() {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(Profile.class, (JsonSerializer<Profile>) (profile, type, context) -> {
+                    JsonObject object = new JsonObject();
+                    object.addProperty("name", profile.displayName);
+                    object.addProperty("age", profile.age);
+                    return object;
+                })
+                .create();
+        Projector projector = new Projector(gson);
+
+        JsonObject expected = new JsonObject();
+        expected.add("age", new JsonPrimitive(32));
+
+        assertEquals(expected, projector.toJsonTree(new Profile("Des", 32), projector.parse("age")));
+    }
+
+    @Test
+    public void testNestedSelections() {
+        Projector projector = new Projector(new Gson());
+        Customer customer = new Customer("Des", new Address("Leeds", "LS1", "UK"), List.of(new Order(1, 10), new Order(2, 20)));
+
+        assertEquals(json("{\"address\":{\"city\":\"Leeds\"}}"),
+                projector.toJsonTree(customer, projector.parse("address.city")));
+        assertEquals(json("{\"name\":\"Des\",\"address\":{\"city\":\"Leeds\",\"zip\":\"LS1\"}}"),
+                projector.toJsonTree(customer, projector.parse("name,address(city,zip)")));
+        assertEquals(json("{\"address\":{\"city\":\"Leeds\",\"zip\":\"LS1\",\"country\":\"UK\"}}"),
+                projector.toJsonTree(customer, projector.parse("address")));
+    }
+
+    @Test
+    public void testCollectionsArraysAndMaps() {
+        Projector projector = new Projector(new Gson());
+        FieldTree fields = projector.parse("orders.id");
+        Customer customer = new Customer("Des", null, List.of(new Order(1, 10), new Order(2, 20)));
+
+        assertEquals(json("{\"orders\":[{\"id\":1},{\"id\":2}]}"), projector.toJsonTree(customer, fields));
+        assertEquals(json("[{\"orders\":[{\"id\":1},{\"id\":2}]}]"), projector.toJsonTree(List.of(customer), fields));
+        assertEquals(json("[{\"orders\":[{\"id\":1},{\"id\":2}]}]"), projector.toJsonTree(new Customer[]{customer}, fields));
+        assertEquals(json("{\"orders\":[{\"id\":1},{\"id\":2}]}"),
+                projector.toJsonTree(Map.of("orders", customer.orders, "name", "Des"), fields));
+        assertEquals(json("[{\"id\":1},{\"id\":2}]"),
+                projector.toJsonTree(new Order[]{new Order(1, 10), new Order(2, 20)}, projector.parse("id")));
+    }
+
+    @Test
+    public void testUnselectedFieldsAreNotSerialized() {
+        AtomicInteger serialized = new AtomicInteger();
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(Report.class, (JsonSerializer<Report>) (report, type, context) -> {
+                    serialized.incrementAndGet();
+                    return new JsonPrimitive(report.content);
+                })
+                .create();
+        Projector projector = new Projector(gson);
+        Summary summary = new Summary("Des", new Report("expensive"));
+
+        // Fails if the reflective adapter of Gson is no longer recognised and the whole value is serialized
+        assertEquals(json("{\"name\":\"Des\"}"), projector.toJsonTree(summary, projector.parse("name")));
+        assertEquals(0, serialized.get());
+
+        assertEquals(json("{\"report\":\"expensive\"}"), projector.toJsonTree(summary, projector.parse("report")));
+        assertEquals(1, serialized.get());
+    }
+
+    private static JsonElement json(String json) {
+        return JsonParser.parseString(json);
+    }
+
+    private static class Account {
+
+        @Expose
+        private final String name;
+        private final String passwordHash;
+
+        private Account(String name, String passwordHash) {
+            this.name = name;
+            this.passwordHash = passwordHash;
+        }
+
+    }
+
+    private record Address(String city, String zip, String country) {
+    }
+
+    private record Order(int id, int total) {
+    }
+
+    private record Customer(String name, Address address, List<Order> orders) {
+    }
+
+    private record Report(String content) {
+    }
+
+    private record Summary(String name, Report report) {
+    }
+
+    private static class Profile {
+
+        @SerializedName("display_name")
+        private final String displayName;
+        private final int age;
+
+        private Profile(String displayName, int age) {
+            this.displayName = displayName;
+            this.age = age;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package me.luxoru.kyro.request;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineTest {
+
+    private static final int PORT = 8083;
+    private static final long TIMEOUT_MILLIS = 100;
+    private static final long STUBBORN_MILLIS = 1_000;
+
+    private Kyro kyro;
+    private StubbornRoute route;
+
+    @BeforeEach
+    public void setUp() {
+        route = new StubbornRoute();
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(route)
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testClientIsAnsweredAtTheDeadline() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/stubborn/work")).build();
+
+        // Keep connection setup and class loading out of the measured time
+        client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/stubborn/ping")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        long startedNanos = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsedMillis = (System.nanoTime() - startedNanos) / 1_000_000;
+
+        assertEquals(504, response.statusCode());
+        assertTrue(elapsedMillis >= TIMEOUT_MILLIS && elapsedMillis < STUBBORN_MILLIS / 2,
+                "Answered after " + elapsedMillis + " ms");
+        assertTrue(route.interrupted.get());
+        assertTrue(route.running.get());
+    }
+
+    @Route(path = "/stubborn")
+    public static class StubbornRoute {
+
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean interrupted = new AtomicBoolean();
+
+        @RestPath(path = "/ping", method = RequestMethod.GET, timeout = TIMEOUT_MILLIS)
+        public String ping(Request request, Response response) {
+            return "pong";
+        }
+
+        @RestPath(path = "/work", method = RequestMethod.GET, timeout = TIMEOUT_MILLIS)
+        public String work(Request request, Response response) {
+            running.set(true);
+            try {
+                // Ignores interrupts, like handlers blocked in code that swallows them
+                long end = System.nanoTime() + STUBBORN_MILLIS * 1_000_000;
+                while (System.nanoTime() < end) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException ex) {
+                        interrupted.set(true);
+                    }
+                }
+                return "done";
+            } finally {
+                running.set(false);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package me.luxoru.kyro.request;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+/**
+ * A GET exchange without a body, implementing only what a {@link Request} reads from its exchange.
+ */
+public class StubExchange extends HttpExchange {
+
+    private final URI uri;
+    private final Headers requestHeaders = new Headers();
+
+    public StubExchange(String uri) {
+        this.uri = URI.create(uri);
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return "GET";
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return -1;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+}
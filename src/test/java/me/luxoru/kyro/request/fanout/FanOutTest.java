@@ -0,0 +1,112 @@
+package me.luxoru.kyro.request.fanout;
+
+import me.luxoru.kyro.request.DeadlineExceededException;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.StubExchange;
+import me.luxoru.kyro.request.UploadSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FanOutTest {
+
+    private static final long SLOW_MILLIS = 10_000;
+
+    @Test
+    public void testFailureCancelsSiblings() {
+        Request request = new Request(new StubExchange("/fan-out"));
+        AtomicBoolean interrupted = new AtomicBoolean();
+        long startedNanos = System.nanoTime();
+
+        Subtask<String> slow;
+
+        try (FanOut<Object> fanOut = request.fanOut()) {
+            slow = fanOut.fork("slow", () -> sleep(SLOW_MILLIS, interrupted));
+            fanOut.fork("broken", () -> {
+                throw new IllegalStateException("backend down");
+            });
+
+            FanOutException ex = assertThrows(FanOutException.class, fanOut::join);
+            assertEquals("backend down", ex.getCause().getMessage());
+        }
+
+        assertEquals(Subtask.State.CANCELLED, slow.getState());
+        assertTrue(interrupted.get());
+        assertTrue(elapsedMillis(startedNanos) < SLOW_MILLIS / 2);
+    }
+
+    @Test
+    public void testDeadlineIsRespected() {
+        Request request = new Request(new StubExchange("/fan-out"), UploadSettings.DEFAULT, 100);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        long startedNanos = System.nanoTime();
+
+        Subtask<String> slow;
+
+        try (FanOut<Object> fanOut = request.fanOut()) {
+            slow = fanOut.fork("slow", () -> sleep(SLOW_MILLIS, interrupted));
+
+            assertThrows(DeadlineExceededException.class, fanOut::join);
+        }
+
+        assertEquals(Subtask.State.CANCELLED, slow.getState());
+        long elapsedMillis = elapsedMillis(startedNanos);
+        assertTrue(elapsedMillis >= 100 && elapsedMillis < SLOW_MILLIS / 2, "Joined after " + elapsedMillis + " ms");
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void testSubtasksDoNotOutliveFanOut() {
+        Request request = new Request(new StubExchange("/fan-out"));
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (FanOut<Object> fanOut = request.fanOut()) {
+            fanOut.fork("slow", () -> {
+                running.incrementAndGet();
+                try {
+                    return sleep(SLOW_MILLIS, interrupted);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+            fanOut.fork("stubborn", () -> {
+                running.incrementAndGet();
+                try {
+                    // Ignores interrupts, closing must still wait for it
+                    long end = System.nanoTime() + 200_000_000L;
+                    while (System.nanoTime() < end) {
+                        Thread.onSpinWait();
+                    }
+                    return "done";
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+            // Leaves the block without joining, like a handler returning early or throwing
+        }
+
+        assertEquals(0, running.get());
+        assertTrue(interrupted.get());
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static String sleep(long millis, AtomicBoolean interrupted) throws InterruptedException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            interrupted.set(true);
+            throw ex;
+        }
+        return "slept";
+    }
+
+}
@@ -0,0 +1,96 @@
+package me.luxoru.kyro.request.multipart;
+
+import me.luxoru.kyro.request.PayloadTooLargeException;
+import me.luxoru.kyro.request.UploadSettings;
+import me.luxoru.kyro.util.LimitedInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultipartParserTest {
+
+    private static final String BOUNDARY = "kyro-boundary";
+    private static final UploadSettings SETTINGS = new UploadSettings(-1, 16, 24,
+            Path.of(System.getProperty("java.io.tmpdir")));
+
+    private final List<Path> temporaryFiles = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (Path path : temporaryFiles) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testMemoryBudgetSpillsLaterParts() throws IOException {
+        MultipartBody body = parse(new ByteArrayInputStream(body(
+                "a", "x".repeat(10),
+                "b", "y".repeat(10),
+                "c", "z".repeat(10),
+                "d", "w".repeat(40))));
+
+        assertTrue(body.getPart("a").isInMemory());
+        assertTrue(body.getPart("b").isInMemory());
+        // Below the threshold, but the first two parts used up most of the budget
+        assertFalse(body.getPart("c").isInMemory());
+        assertFalse(body.getPart("d").isInMemory());
+        assertEquals("z".repeat(10), read(body.getPart("c")));
+        assertEquals("w".repeat(40), read(body.getPart("d")));
+        assertEquals(2, temporaryFiles.size());
+    }
+
+    @Test
+    public void testPartLimit() {
+        String[] fields = new String[2 * 1025];
+        for (int i = 0; i < 1025; i++) {
+            fields[2 * i] = "f" + i;
+            fields[2 * i + 1] = "";
+        }
+
+        IOException ex = assertThrows(IOException.class, () -> parse(new ByteArrayInputStream(body(fields))));
+        assertEquals("Multipart body has more than 1024 parts", ex.getMessage());
+    }
+
+    @Test
+    public void testBodyLimit() {
+        byte[] body = body("upload", "x".repeat(4096));
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> parse(new LimitedInputStream(new ByteArrayInputStream(body), 1024)));
+    }
+
+    private MultipartBody parse(InputStream in) throws IOException {
+        return new MultipartParser(in, BOUNDARY, SETTINGS, temporaryFiles).parse();
+    }
+
+    private static String read(Part part) throws IOException {
+        try (InputStream in = part.openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] body(String... fields) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < fields.length; i += 2) {
+            body.append("--").append(BOUNDARY).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(fields[i]).append("\"\r\n\r\n")
+                    .append(fields[i + 1]).append("\r\n");
+        }
+        return body.append("--").append(BOUNDARY).append("--\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
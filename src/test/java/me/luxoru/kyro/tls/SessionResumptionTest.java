@@ -0,0 +1,90 @@
+package me.luxoru.kyro.tls;
+
+import me.luxoru.kyro.Kyro;
+import me.luxoru.kyro.Kyro.KyroBuilder;
+import me.luxoru.kyro.metrics.HandshakeMetrics;
+import me.luxoru.kyro.request.Request;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.security.KeyStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SessionResumptionTest {
+
+    private static final int PORT = 8090;
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private Path keyStore;
+    private Kyro kyro;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        keyStore = Path.of(SessionResumptionTest.class.getResource("/tls/test-keystore.p12").toURI());
+
+        kyro = new KyroBuilder(PORT)
+                .addRoute(new PingRoute())
+                .enableHttps(TlsUtils.createContext(keyStore, PASSWORD))
+                .build();
+        kyro.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        kyro.cleanup();
+    }
+
+    @Test
+    public void testResumedHandshakeIsCounted() throws Exception {
+        // The client session cache belongs to the context, so a second client can resume the first one's session
+        SSLContext clientContext = createClientContext();
+
+        for (int i = 0; i < 2; i++) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .sslContext(clientContext)
+                    .build();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("https://localhost:" + PORT + "/ping")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+        }
+
+        HandshakeMetrics metrics = kyro.getMetrics().getHandshakes();
+        assertEquals(1, metrics.getFullHandshakes());
+        assertEquals(1, metrics.getResumedHandshakes());
+        assertEquals(0, metrics.getFailedHandshakes());
+    }
+
+    private SSLContext createClientContext() throws Exception {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(KeyStore.getInstance(keyStore.toFile(), PASSWORD));
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagerFactory.getTrustManagers(), null);
+        return context;
+    }
+
+    @Route(path = "/ping")
+    public static class PingRoute {
+
+        @RestPath(path = "", method = RequestMethod.GET)
+        public String ping(Request request, Response response) {
+            return "pong";
+        }
+
+    }
+
+}
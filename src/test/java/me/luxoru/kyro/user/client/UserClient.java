@@ -0,0 +1,30 @@
+package me.luxoru.kyro.user.client;
+
+import me.luxoru.kyro.client.Param;
+import me.luxoru.kyro.request.RequestMethod;
+import me.luxoru.kyro.request.RestPath;
+import me.luxoru.kyro.request.Route;
+import me.luxoru.kyro.user.data.User;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Route(path = "/v1")
+public interface UserClient {
+
+    @RestPath(path = "/user", method = RequestMethod.GET)
+    User fetchUser(@Param("name") String name);
+
+    @RestPath(path = "/user", method = RequestMethod.GET)
+    CompletableFuture<User> fetchUserAsync(@Param("name") String name);
+
+    @RestPath(path = "/users", method = RequestMethod.GET)
+    CompletableFuture<Set<User>> getUsers();
+
+    @RestPath(path = "/put", method = RequestMethod.POST)
+    User insert(@Param("name") String name, @Param("age") int age);
+
+    @RestPath(path = "/missing", method = RequestMethod.GET)
+    User missing();
+
+}
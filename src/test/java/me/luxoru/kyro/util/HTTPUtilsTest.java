@@ -0,0 +1,45 @@
+package me.luxoru.kyro.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HTTPUtilsTest {
+
+    @Test
+    public void testFormatDate() {
+        assertEquals("Tue, 03 Jun 2008 11:05:30 GMT", HTTPUtils.formatDate(Instant.parse("2008-06-03T11:05:30.789Z")));
+        // IMF-fixdates always use two-digit days
+        assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", HTTPUtils.formatDate(Instant.parse("1994-11-06T08:49:37Z")));
+    }
+
+    @Test
+    public void testParseDate() {
+        Instant instant = Instant.parse("1994-11-06T08:49:37Z");
+
+        assertEquals(instant, HTTPUtils.parseDate("Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertEquals(instant, HTTPUtils.parseDate("Sun, 6 Nov 1994 08:49:37 GMT"));
+        assertEquals(instant, HTTPUtils.parseDate(HTTPUtils.formatDate(instant)));
+        assertNull(HTTPUtils.parseDate(null));
+        assertNull(HTTPUtils.parseDate("Sunday, 06-Nov-94 08:49:37 GMT"));
+        assertNull(HTTPUtils.parseDate("yesterday"));
+    }
+
+    @Test
+    public void testMatchesEntityTag() {
+        assertTrue(HTTPUtils.matchesEntityTag("\"a\"", "\"a\""));
+        assertTrue(HTTPUtils.matchesEntityTag("W/\"a\"", "\"a\""));
+        assertTrue(HTTPUtils.matchesEntityTag("\"a\"", "W/\"a\""));
+        assertTrue(HTTPUtils.matchesEntityTag("\"b\", \"a\"", "\"a\""));
+        assertTrue(HTTPUtils.matchesEntityTag("*", "\"a\""));
+        assertFalse(HTTPUtils.matchesEntityTag("\"b\"", "\"a\""));
+        assertFalse(HTTPUtils.matchesEntityTag("\"a\"", null));
+        assertFalse(HTTPUtils.matchesEntityTag(null, "\"a\""));
+    }
+
+}